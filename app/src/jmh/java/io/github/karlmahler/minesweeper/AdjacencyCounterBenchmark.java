@@ -0,0 +1,54 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdjacencyCounterBenchmark {
+    @Param({ "8", "64", "512", "4096" })
+    private int size;
+
+    @Param({ "10", "20", "30" })
+    private double mineProbability;
+
+    @Param({ "OBJECT", "PACKED", "OFF_HEAP" })
+    private BoardBackend backend;
+
+    private BoardStorage storage;
+
+    @Setup
+    public void setUp() {
+        var random = new SplittableRandom(42L);
+
+        this.storage = backend.createStorage(size, size);
+
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            storage.setMine(index, random.nextDouble() * 100.0 < mineProbability);
+        }
+    }
+
+    @Benchmark
+    public BoardStorage countWordParallel() {
+        AdjacencyCounter.count(storage);
+
+        return storage;
+    }
+
+    @Benchmark
+    public BoardStorage countScalar() {
+        AdjacencyCounter.countScalar(storage);
+
+        return storage;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardGenerationBenchmark {
+    @Param({ "8", "64", "512", "4096" })
+    private int size;
+
+    @Param({ "10", "20", "30" })
+    private double mineProbability;
+
+    @Param({ "OBJECT", "PACKED", "OFF_HEAP" })
+    private BoardBackend backend;
+
+    private final SplittableRandom random = new SplittableRandom(42L);
+
+    @Benchmark
+    public BoardStorage buildGrid() {
+        var board = new Board(size, MinePlacement.probability(mineProbability), backend, random);
+
+        board.buildGrid(size / 2, size / 2);
+
+        return board.getStorage();
+    }
+
+    @Benchmark
+    public BoardStorage buildGridInParallel() {
+        var board = new Board(size, MinePlacement.probability(mineProbability), backend, random);
+
+        board.buildGridInParallel(size / 2, size / 2);
+
+        return board.getStorage();
+    }
+
+    @Benchmark
+    public BoardStorage buildGridWithExactMineCount() {
+        int mineCount = (int) (size * (long) size * mineProbability / 100.0);
+        var board = new Board(size, MinePlacement.exact(mineCount), backend, random);
+
+        board.buildGrid(size / 2, size / 2);
+
+        return board.getStorage();
+    }
+}
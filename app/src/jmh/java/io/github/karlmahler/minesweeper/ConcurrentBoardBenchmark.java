@@ -0,0 +1,58 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Run with increasing -t to check that player throughput scales with threads.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentBoardBenchmark {
+    private static final int SIZE = 4096;
+
+    private BoardStorage layout;
+    private ConcurrentBoard board;
+
+    @State(Scope.Thread)
+    public static class Player {
+        private final SplittableRandom random = new SplittableRandom();
+        private final ChangeSet changes = new ChangeSet();
+    }
+
+    @Setup(Level.Trial)
+    public void generate() {
+        var placement = MinePlacement.probability(Difficulty.HARD.getMineProbability());
+        var generated = new Board(SIZE, placement, BoardBackend.PACKED, new SplittableRandom(42L));
+
+        generated.buildGridInParallel(SIZE / 2, SIZE / 2);
+
+        this.layout = generated.getStorage();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBoard() {
+        this.board = new ConcurrentBoard(layout);
+    }
+
+    @Benchmark
+    public boolean play(final Player player) {
+        int index = player.random.nextInt(layout.getCellCount());
+
+        player.changes.clear();
+
+        if (layout.hasMine(index)) {
+            return board.mark(index) && board.unmark(index);
+        }
+
+        return board.reveal(index, player.changes);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FloodFillBenchmark {
+    @Param({ "8", "64", "512", "4096" })
+    private int size;
+
+    @Param({ "1", "5", "10" })
+    private double mineProbability;
+
+    @Param({ "OBJECT", "PACKED", "OFF_HEAP" })
+    private BoardBackend backend;
+
+    private BoardStorage storage;
+    private FloodFill floodFill;
+    private ChangeSet changes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var board = new Board(size, MinePlacement.probability(mineProbability), backend, new SplittableRandom(42L));
+
+        board.buildGrid(size / 2, size / 2);
+
+        this.storage = board.getStorage();
+        this.floodFill = new FloodFill(storage);
+        this.changes = new ChangeSet();
+    }
+
+    @Setup(Level.Invocation)
+    public void hideCells() {
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            storage.setStatus(index, BoardStorage.HIDDEN);
+        }
+
+        changes.clear();
+    }
+
+    @Benchmark
+    public int reveal() {
+        floodFill.reveal(storage.indexOf(size / 2, size / 2), changes);
+
+        return changes.size();
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GridViewBenchmark {
+    @Param({ "8", "64", "512", "4096" })
+    private int size;
+
+    @Param({ "OBJECT", "PACKED", "OFF_HEAP" })
+    private BoardBackend backend;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        this.board = new Board(size, MinePlacement.probability(20.0), backend, new SplittableRandom(42L));
+
+        board.buildGrid(0, 0);
+    }
+
+    @Benchmark
+    public Object getGrid() {
+        return board.getGrid();
+    }
+
+    @Benchmark
+    public int countMinesThroughGridView() {
+        int mines = 0;
+
+        for (var row : board.getGrid()) {
+            for (var cell : row) {
+                if (cell.hasMine()) {
+                    mines++;
+                }
+            }
+        }
+
+        return mines;
+    }
+}
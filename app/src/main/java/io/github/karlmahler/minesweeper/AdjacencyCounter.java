@@ -0,0 +1,146 @@
+package io.github.karlmahler.minesweeper;
+
+public final class AdjacencyCounter {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_BITS = 1 << WORD_SHIFT;
+
+    private AdjacencyCounter() {
+    }
+
+    public static void count(final BoardStorage storage) {
+        long[] mines = packMines(storage);
+
+        countRows(storage, mines, 0, storage.getRows());
+    }
+
+    public static int wordsPerRow(final int columns) {
+        return (columns + WORD_BITS - 1) >>> WORD_SHIFT;
+    }
+
+    public static long[] packMines(final BoardStorage storage) {
+        long[] mines = new long[Math.multiplyExact(storage.getRows(), wordsPerRow(storage.getColumns()))];
+
+        packMines(storage, mines, 0, storage.getRows());
+
+        return mines;
+    }
+
+    public static void packMines(final BoardStorage storage, final long[] mines, final int fromRow, final int toRow) {
+        int columns = storage.getColumns();
+        int words = wordsPerRow(columns);
+
+        for (int row = fromRow; row < toRow; row++) {
+            int offset = row * columns;
+            int wordOffset = row * words;
+
+            for (int column = 0; column < columns; column++) {
+                if (storage.hasMine(offset + column)) {
+                    mines[wordOffset + (column >>> WORD_SHIFT)] |= 1L << column;
+                }
+            }
+        }
+    }
+
+    // Adds the eight neighbour bit planes of 64 cells at a time with a
+    // carry-save adder tree, giving the counts as four bit-sliced words.
+    public static void countRows(final BoardStorage storage, final long[] mines, final int fromRow, final int toRow) {
+        int rows = storage.getRows();
+        int columns = storage.getColumns();
+        int words = wordsPerRow(columns);
+
+        for (int row = fromRow; row < toRow; row++) {
+            int above = (row - 1) * words;
+            int current = row * words;
+            int below = (row + 1) * words;
+            boolean hasAbove = row > 0;
+            boolean hasBelow = row < rows - 1;
+
+            for (int word = 0; word < words; word++) {
+                long up = hasAbove ? mines[above + word] : 0L;
+                long middle = mines[current + word];
+                long down = hasBelow ? mines[below + word] : 0L;
+
+                long upLeft = hasAbove ? shiftLeft(mines, above, word) : 0L;
+                long upRight = hasAbove ? shiftRight(mines, above, word, words) : 0L;
+                long left = shiftLeft(mines, current, word);
+                long right = shiftRight(mines, current, word, words);
+                long downLeft = hasBelow ? shiftLeft(mines, below, word) : 0L;
+                long downRight = hasBelow ? shiftRight(mines, below, word, words) : 0L;
+
+                long firstSum = upLeft ^ up ^ upRight;
+                long firstCarry = (upLeft & up) | (upRight & (upLeft ^ up));
+                long secondSum = left ^ right ^ downLeft;
+                long secondCarry = (left & right) | (downLeft & (left ^ right));
+                long thirdSum = down ^ downRight;
+                long thirdCarry = down & downRight;
+
+                long ones = firstSum ^ secondSum ^ thirdSum;
+                long onesCarry = (firstSum & secondSum) | (thirdSum & (firstSum ^ secondSum));
+
+                long twosSum = firstCarry ^ secondCarry ^ thirdCarry;
+                long twosCarry = (firstCarry & secondCarry) | (thirdCarry & (firstCarry ^ secondCarry));
+                long twos = twosSum ^ onesCarry;
+                long twosSumCarry = twosSum & onesCarry;
+
+                long fours = twosCarry ^ twosSumCarry;
+                long eights = twosCarry & twosSumCarry;
+
+                writeCounts(storage, row * columns, word, columns, ones, twos, fours, eights);
+            }
+        }
+    }
+
+    private static long shiftLeft(final long[] mines, final int rowOffset, final int word) {
+        long value = mines[rowOffset + word] << 1;
+
+        if (word > 0) {
+            value |= mines[rowOffset + word - 1] >>> (WORD_BITS - 1);
+        }
+
+        return value;
+    }
+
+    private static long shiftRight(final long[] mines, final int rowOffset, final int word, final int words) {
+        long value = mines[rowOffset + word] >>> 1;
+
+        if (word < words - 1) {
+            value |= mines[rowOffset + word + 1] << (WORD_BITS - 1);
+        }
+
+        return value;
+    }
+
+    private static void writeCounts(
+        final BoardStorage storage,
+        final int rowOffset,
+        final int word,
+        final int columns,
+        final long ones,
+        final long twos,
+        final long fours,
+        final long eights
+    ) {
+        int firstColumn = word << WORD_SHIFT;
+        int lastColumn = Math.min(firstColumn + WORD_BITS, columns);
+
+        for (int column = firstColumn; column < lastColumn; column++) {
+            int bit = column - firstColumn;
+            int adjacentMines = (int) (
+                ((ones >>> bit) & 1L) |
+                (((twos >>> bit) & 1L) << 1) |
+                (((fours >>> bit) & 1L) << 2) |
+                (((eights >>> bit) & 1L) << 3)
+            );
+
+            storage.setAdjacentMines(rowOffset + column, adjacentMines);
+        }
+    }
+
+    public static void countScalar(final BoardStorage storage) {
+        var neighbourhood = new Neighbourhood(storage);
+
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            storage.setAdjacentMines(index, neighbourhood.countMines(storage, index));
+        }
+    }
+}
@@ -1,7 +1,49 @@
 package io.github.karlmahler.minesweeper;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 public class App {
-    public static void main(final String[] args) {
-        Launcher.main(args);
+    private static final String SIMULATE_OPTION = "--simulate";
+    private static final String SERVE_OPTION = "--serve";
+    private static final String LOAD_OPTION = "--load";
+    private static final String METRICS_OPTION = "--metrics";
+    private static final String STARTUP_PROBE_OPTION = "--startup-probe";
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        var arguments = enableMetrics(args);
+        var mode = arguments.length > 0 ? arguments[0] : "";
+        var options = arguments.length > 0 ? Arrays.copyOfRange(arguments, 1, arguments.length) : arguments;
+
+        switch (mode) {
+            case SIMULATE_OPTION -> Simulation.run(options, System.out);
+            case SERVE_OPTION -> GameServer.run(options, System.out);
+            case LOAD_OPTION -> LoadGenerator.run(options, System.out);
+            case STARTUP_PROBE_OPTION -> {
+                Startup.enableProbe();
+                launch(options);
+            }
+            default -> launch(arguments);
+        }
+    }
+
+    private static void launch(final String[] arguments) {
+        Startup.warmUp();
+        Launcher.main(arguments);
+    }
+
+    // Must run before Metrics is first touched, since the flag is read once on class initialization.
+    private static String[] enableMetrics(final String[] args) {
+        var arguments = Arrays.stream(args).filter(arg -> !arg.equals(METRICS_OPTION)).toArray(String[]::new);
+
+        if (arguments.length < args.length) {
+            System.setProperty(Metrics.ENABLED_PROPERTY, Boolean.TRUE.toString());
+        }
+
+        if (Boolean.getBoolean(Metrics.ENABLED_PROPERTY)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> Metrics.dump(System.out)));
+        }
+
+        return arguments;
     }
 }
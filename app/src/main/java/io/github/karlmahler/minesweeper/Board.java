@@ -1,145 +1,243 @@
 package io.github.karlmahler.minesweeper;
 
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public final class Board {
+    private static final BoardBackend DEFAULT_BACKEND = BoardBackend.PACKED;
+    // Enough for any cascade a view can usefully repaint cell by cell.
+    private static final int MAXIMUM_TRACKED_CHANGES = 1 << 22;
+
+    private BoardStorage storage;
     private List<List<Cell>> grid;
-    private final int size;
-    private final double mineProbability;
-    private final Random random;
+    private final int rows;
+    private final int columns;
+    private final MinePlacement placement;
+    private final BoardBackend backend;
+    private final RandomGenerator random;
+    private final ChangeSet changes;
+    private Neighbourhood neighbourhood;
+    private FloodFill floodFill;
+    private int[] mineIndices;
+    private int mineCount;
+    private int flaggedCells;
+    private int revealedCells;
 
     public Board(final int size, final double mineProbability) {
-        this.random = new Random();
-        this.mineProbability = mineProbability / 100.0;
-        this.size = size;
+        this(size, mineProbability, DEFAULT_BACKEND);
+    }
+
+    public Board(final int size, final double mineProbability, final BoardBackend backend) {
+        this(size, MinePlacement.probability(mineProbability), backend, new SplittableRandom());
+    }
+
+    public Board(final int size, final MinePlacement placement, final BoardBackend backend, final RandomGenerator random) {
+        this(size, size, placement, backend, random);
+    }
+
+    public Board(
+        final int rows,
+        final int columns,
+        final MinePlacement placement,
+        final BoardBackend backend,
+        final RandomGenerator random
+    ) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException(String.format("a %d x %d board has no cells", rows, columns));
+        }
+
+        this.random = random;
+        this.placement = placement;
+        this.rows = rows;
+        this.columns = columns;
+        this.backend = backend;
         this.grid = Collections.emptyList();
+        this.changes = new ChangeSet(MAXIMUM_TRACKED_CHANGES);
     }
 
     public void buildGrid(final int startRow, final int startColumn) {
-        this.grid = createGrid(startRow, startColumn);
-        fillAdjacentMines();
+        var event = new BoardGenerationEvent();
+        long start = Metrics.startTimer();
+
+        event.begin();
+        this.storage = backend.createStorage(rows, columns);
+        this.mineCount = placement.place(storage, startRow, startColumn, random);
+
+        AdjacencyCounter.count(storage);
+
+        initializeState();
+        finishGeneration(event, start, false);
     }
 
-    private List<List<Cell>> createGrid(final int startRow, final int startColumn) {
-        List<List<Cell>> grid = new ArrayList<>();
+    public void buildGridInParallel(final int startRow, final int startColumn) {
+        var event = new BoardGenerationEvent();
+        long start = Metrics.startTimer();
 
-        for (int row = 0; row < size; row++) {
-            List<Cell> rowCells = createRows(row, startRow, startColumn);
+        event.begin();
+        this.storage = backend.createStorage(rows, columns);
+        this.mineCount = ParallelGeneration.generate(storage, placement, startRow, startColumn, random);
 
-            grid.add(rowCells);
-        }
+        initializeState();
+        finishGeneration(event, start, true);
+    }
 
-        return grid;
+    private void finishGeneration(final BoardGenerationEvent event, final long start, final boolean parallel) {
+        Metrics.stopTimer(Metrics.BOARD_GENERATION, start);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.rows = storage.getRows();
+            event.columns = storage.getColumns();
+            event.mineCount = mineCount;
+            event.parallel = parallel;
+            event.commit();
+        }
     }
 
-    private List<Cell> createRows(final int row, final int startRow, final int startColumn) {
-        List<Cell> rowCells = new ArrayList<>();
+    private void initializeState() {
+        this.grid = new GridView(storage);
+        this.neighbourhood = new Neighbourhood(storage);
+        this.floodFill = new FloodFill(storage, neighbourhood);
+        this.mineIndices = collectMineIndices();
+        this.flaggedCells = 0;
+        this.revealedCells = 0;
 
-        for (int column = 0; column < size; column++) {
-            Cell cell;
+        changes.clear();
+    }
 
-            if (isNearStartCell(row, startRow, column, startColumn)) {
-                cell = new Cell(false);
-            } else {
-                cell = createCell();
-            }
+    private int[] collectMineIndices() {
+        var indices = new int[mineCount];
+        int found = 0;
 
-            rowCells.add(cell);
+        for (int index = 0; index < storage.getCellCount() && found < mineCount; index++) {
+            if (storage.hasMine(index)) {
+                indices[found++] = index;
+            }
         }
 
-        return rowCells;
+        return indices;
     }
 
-    private boolean isNearStartCell(final int row, final int startRow, final int column, final int startColumn) {
-        return (
-            row == startRow && column == startColumn ||
-            row == startRow - 1 && column == startColumn - 1 ||
-            row == startRow - 1 && column == startColumn ||
-            row == startRow - 1 && column == startColumn + 1 ||
-            row == startRow && column == startColumn - 1 ||
-            row == startRow && column == startColumn + 1 ||
-            row == startRow + 1 && column == startColumn - 1 ||
-            row == startRow + 1 && column == startColumn ||
-            row == startRow + 1 && column == startColumn + 1
-        );
-    }
+    public boolean mark(final int index) {
+        if (storage.getStatus(index) != BoardStorage.HIDDEN) {
+            return false;
+        }
 
-    private Cell createCell() {
-        boolean mine = generateRandomBoolean();
-        var cell = new Cell(mine);
+        storage.setStatus(index, BoardStorage.MARKED);
+        flaggedCells++;
+        changes.add(index);
 
-        return cell;
+        return true;
     }
 
-    private boolean generateRandomBoolean() {
-        return random.nextDouble() < mineProbability;
-    }
+    public boolean unmark(final int index) {
+        if (storage.getStatus(index) != BoardStorage.MARKED) {
+            return false;
+        }
 
-    public List<List<Cell>> getGrid() {
-        return createUnmodifiableGridView();
+        storage.setStatus(index, BoardStorage.HIDDEN);
+        flaggedCells--;
+        changes.add(index);
+
+        return true;
     }
 
-    private List<List<Cell>> createUnmodifiableGridView() {
-        List<List<Cell>> view = new ArrayList<>();
+    // Reveals a hidden cell, cascading through empty cells, and returns whether it was a mine.
+    public boolean reveal(final int index) {
+        if (storage.getStatus(index) != BoardStorage.HIDDEN) {
+            return false;
+        }
+
+        if (storage.hasMine(index)) {
+            storage.setStatus(index, BoardStorage.REVEALED);
+            changes.add(index);
 
-        for (var row : grid) {
-            view.add(Collections.unmodifiableList(row));
+            return true;
         }
 
-        return Collections.unmodifiableList(view);
+        var event = new RevealCascadeEvent();
+        long start = Metrics.startTimer();
+        event.begin();
+        flaggedCells -= floodFill.reveal(index, changes);
+        revealedCells += floodFill.getRevealedCells();
+        Metrics.stopTimer(Metrics.REVEAL_CASCADE, start);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.index = index;
+            event.cellsRevealed = floodFill.getRevealedCells();
+            event.commit();
+        }
+
+        return false;
     }
 
-    private void fillAdjacentMines() {
-        for (int row = 0; row < size; row++) {
-            var rowCells = grid.get(row);
+    public void revealMines() {
+        for (int index : mineIndices) {
+            if (storage.getStatus(index) == BoardStorage.HIDDEN) {
+                storage.setStatus(index, BoardStorage.REVEALED);
+                changes.add(index);
+            }
+        }
+    }
+
+    public boolean isCleared() {
+        return revealedCells == storage.getCellCount() - mineCount;
+    }
+
+    // Cells whose status changed since the log was last cleared, for views to repaint.
+    public ChangeSet getChanges() {
+        return changes;
+    }
 
-            for (int column = 0; column < size; column++) {
-                int topLeft = calculateAdjacentMine(row - 1, column - 1);
-                int topMiddle = calculateAdjacentMine(row - 1, column);
-                int topRight = calculateAdjacentMine(row - 1, column + 1);
+    public void clearChanges() {
+        changes.clear();
+    }
 
-                int middleLeft = calculateAdjacentMine(row, column - 1);
-                int middleRight = calculateAdjacentMine(row, column + 1);
+    public List<List<Cell>> getGrid() {
+        return grid;
+    }
 
-                int bottomLeft = calculateAdjacentMine(row + 1, column - 1);
-                int bottomMiddle = calculateAdjacentMine(row + 1, column);
-                int bottomRight = calculateAdjacentMine(row + 1, column + 1);
+    public BoardStorage getStorage() {
+        return storage;
+    }
 
-                int adjacentMines = (
-                    topLeft + topMiddle + topRight +
-                    middleLeft + middleRight +
-                    bottomLeft + bottomMiddle + bottomRight
-                );
+    Neighbourhood getNeighbourhood() {
+        return neighbourhood;
+    }
 
-                var cell = rowCells.get(column);
+    // The heap this board holds once generated, freed when it is replaced.
+    public long getEstimatedBytes() {
+        return storage == null ? 0 : backend.estimateBytes(getCellCount(), mineCount);
+    }
 
-                cell.setAdjacentMines(adjacentMines);
-            }
-        }
+    public BoardBackend getBackend() {
+        return backend;
     }
 
-    private int calculateAdjacentMine(final int row, final int column) {
-        return hasAdjacentCellMine(row, column) ? 1 : 0;
+    public int getRows() {
+        return rows;
     }
 
-    private boolean hasAdjacentCellMine(final int row, final int column) {
-        if (!isValidPosition(row, column)) {
-            return false;
-        }
+    public int getColumns() {
+        return columns;
+    }
 
-        var adjacentCell = grid.get(row).get(column);
+    public int getCellCount() {
+        return rows * columns;
+    }
 
-        return adjacentCell.hasMine();
+    public int getMineCount() {
+        return mineCount;
     }
 
-    private boolean isValidPosition(final int row, final int column) {
-        return isValidIndex(row) && isValidIndex(column);
+    public int getFlaggedCells() {
+        return flaggedCells;
     }
 
-    private boolean isValidIndex(final int index) {
-        return index >= 0 && index < size;
+    public int getRevealedCells() {
+        return revealedCells;
     }
 }
@@ -0,0 +1,84 @@
+package io.github.karlmahler.minesweeper;
+
+import java.nio.file.Path;
+
+public enum BoardBackend {
+    OBJECT(40),
+    PACKED(1),
+    CHUNKED(1),
+    // Off-heap cells cost the heap nothing; only the bookkeeping next to them does.
+    OFF_HEAP(0),
+    MAPPED(0);
+
+    public static final long MAXIMUM_CELLS = 1_000_000_000L;
+
+    // Above this a single packed array gets large enough that the heap may fail to place it.
+    private static final long MAXIMUM_CONTIGUOUS_CELLS = 1L << 26;
+
+    private final int bytesPerCell;
+
+    BoardBackend(final int bytesPerCell) {
+        this.bytesPerCell = bytesPerCell;
+    }
+
+    public BoardStorage createStorage(final int rows, final int columns) {
+        return switch (this) {
+            case OBJECT -> new ObjectBoardStorage(rows, columns);
+            case PACKED -> new PackedBoardStorage(rows, columns);
+            case CHUNKED -> new ChunkedBoardStorage(rows, columns);
+            case OFF_HEAP -> new OffHeapBoardStorage(rows, columns);
+            case MAPPED -> OffHeapBoardStorage.mapped(rows, columns, Path.of(System.getProperty("java.io.tmpdir")));
+        };
+    }
+
+    // The storage itself plus what every board needs next to it: packed
+    // mine rows for counting and the list of mine indices.
+    public long estimateBytes(final long cells, final long mines) {
+        return cells * bytesPerCell + cells / 8 + mines * Integer.BYTES;
+    }
+
+    // Packed arrays are the smallest layout at every size, so object cells
+    // are never picked automatically; they stay available for explicit use.
+    // Boards whose cells would not fit into the heap go to a mapped file,
+    // which the OS can page out instead of failing.
+    public static BoardBackend select(final int rows, final int columns, final long mines, final long availableBytes) {
+        long cells = (long) rows * columns;
+
+        if (rows < 1 || columns < 1 || cells > MAXIMUM_CELLS) {
+            throw new IllegalArgumentException(String.format(
+                    "a %d x %d board must have between 1 and %d cells",
+                    rows,
+                    columns,
+                    MAXIMUM_CELLS
+                )
+            );
+        }
+
+        var backend = cells <= MAXIMUM_CONTIGUOUS_CELLS ? PACKED : CHUNKED;
+
+        if (backend.estimateBytes(cells, mines) > availableBytes) {
+            backend = MAPPED;
+        }
+
+        long required = backend.estimateBytes(cells, mines);
+
+        if (required > availableBytes) {
+            throw new IllegalArgumentException(String.format(
+                    "a %d x %d board needs about %d MiB but only %d MiB of heap is available",
+                    rows,
+                    columns,
+                    required >> 20,
+                    availableBytes >> 20
+                )
+            );
+        }
+
+        return backend;
+    }
+
+    public static long getAvailableHeap() {
+        var runtime = Runtime.getRuntime();
+
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.karlmahler.minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.github.karlmahler.minesweeper.BoardGeneration")
+@Label("Board Generation")
+@Category("Minesweeper")
+final class BoardGenerationEvent extends Event {
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Mines")
+    int mineCount;
+
+    @Label("Parallel")
+    boolean parallel;
+}
@@ -0,0 +1,31 @@
+package io.github.karlmahler.minesweeper;
+
+public interface BoardStorage {
+    byte HIDDEN = 0;
+    byte MARKED = 1;
+    byte REVEALED = 2;
+
+    int getRows();
+
+    int getColumns();
+
+    default int getCellCount() {
+        return getRows() * getColumns();
+    }
+
+    default int indexOf(final int row, final int column) {
+        return row * getColumns() + column;
+    }
+
+    boolean hasMine(int index);
+
+    void setMine(int index, boolean mine);
+
+    int getAdjacentMines(int index);
+
+    void setAdjacentMines(int index, int adjacentMines);
+
+    byte getStatus(int index);
+
+    void setStatus(int index, byte status);
+}
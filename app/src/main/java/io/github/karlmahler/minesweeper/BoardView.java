@@ -0,0 +1,50 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.List;
+
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+
+interface BoardView {
+    String MINE_SYMBOL = "💣";
+    String EMPTY_AND_HIDDEN_CELL_SYMBOL = "";
+    // Shared so cells never allocate their text, and re-setting the same text is a no-op.
+    List<String> ADJACENT_MINES_SYMBOLS = List.of(EMPTY_AND_HIDDEN_CELL_SYMBOL, "1", "2", "3", "4", "5", "6", "7", "8");
+
+    Node getNode();
+
+    void setOnCellClicked(CellClickHandler handler);
+
+    // Draws a changed cell from its state as it was right after the move,
+    // encoded as by Protocol.encodeCell.
+    void update(int index, byte cell);
+
+    // The storage behind repaints of cells that did not change, such as
+    // scrolling or refresh(). Moves still running on the game's worker may be
+    // writing to it, so such repaints can show a cell a little early; the
+    // batch for that move repaints it again.
+    void attach(BoardStorage storage);
+
+    // Repaints every cell from the attached storage, for change sets that overflowed.
+    void refresh();
+
+    void showExplosion(int index);
+
+    void setDisabled(boolean disabled);
+
+    // Rebinds the view to a new board in place, so restarts reuse the existing nodes.
+    void reset(Board board);
+
+    static String getCellContent(final byte cell) {
+        if (Protocol.decodeMine(cell)) {
+            return MINE_SYMBOL;
+        }
+
+        return ADJACENT_MINES_SYMBOLS.get(Protocol.decodeAdjacentMines(cell));
+    }
+
+    @FunctionalInterface
+    interface CellClickHandler {
+        void onCellClicked(int index, MouseButton button);
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.GridPane;
+import javafx.geometry.Insets;
+
+final class ButtonBoardView implements BoardView {
+    private static final int BUTTON_PADDING = 2;
+    private static final double BUTTON_SIZE = 31.0;
+    private static final String STYLESHEET = ButtonBoardView.class.getResource("board.css").toExternalForm();
+    private static final String CELL_STYLE_CLASS = "cell";
+    // A state change only toggles pseudo-classes, so no inline style is parsed per cell.
+    private static final PseudoClass FLAGGED = PseudoClass.getPseudoClass("flagged");
+    private static final PseudoClass REVEALED = PseudoClass.getPseudoClass("revealed");
+    private static final PseudoClass MINE = PseudoClass.getPseudoClass("mine");
+    private static final PseudoClass EXPLODED = PseudoClass.getPseudoClass("exploded");
+
+    private final GridPane gridPane;
+    private final ScrollPane scrollPane;
+    // Every button ever created, kept so that index i is always served by the same button.
+    private final List<Button> buttonPool;
+    private final ChordGesture chordGesture;
+    private BoardStorage storage;
+    private int rows;
+    private int columns;
+    private CellClickHandler handler;
+
+    ButtonBoardView(final Board board) {
+        this.gridPane = createGridPane();
+        this.scrollPane = new ScrollPane(gridPane);
+        this.buttonPool = new ArrayList<>();
+        this.chordGesture = new ChordGesture();
+
+        scrollPane.setPadding(new Insets(5));
+        scrollPane.getStylesheets().add(STYLESHEET);
+        reset(board);
+    }
+
+    private GridPane createGridPane() {
+        var pane = new GridPane();
+
+        pane.setPadding(new Insets(BUTTON_PADDING));
+        pane.setHgap(BUTTON_PADDING);
+        pane.setVgap(BUTTON_PADDING);
+
+        return pane;
+    }
+
+    private Button createButton(final int index) {
+        var button = new Button(EMPTY_AND_HIDDEN_CELL_SYMBOL);
+
+        button.setPrefSize(BUTTON_SIZE, BUTTON_SIZE);
+        button.getStyleClass().add(CELL_STYLE_CLASS);
+        button.setOnMousePressed(chordGesture::press);
+        button.setOnMouseClicked(event -> {
+            var mouseButton = chordGesture.translate(event);
+
+            if (handler != null && mouseButton != null) {
+                handler.onCellClicked(index, mouseButton);
+            }
+        });
+
+        return button;
+    }
+
+    @Override
+    public void reset(final Board board) {
+        boolean resized = board.getRows() != rows || board.getColumns() != columns;
+
+        this.storage = null;
+        this.rows = board.getRows();
+        this.columns = board.getColumns();
+
+        if (resized) {
+            layoutButtons();
+        }
+
+        for (int index = 0; index < rows * columns; index++) {
+            clear(buttonPool.get(index));
+        }
+
+        gridPane.setDisable(false);
+        scrollPane.setHvalue(0.0);
+        scrollPane.setVvalue(0.0);
+    }
+
+    private static void clear(final Button button) {
+        button.setText(EMPTY_AND_HIDDEN_CELL_SYMBOL);
+        button.pseudoClassStateChanged(FLAGGED, false);
+        button.pseudoClassStateChanged(REVEALED, false);
+        button.pseudoClassStateChanged(MINE, false);
+        button.pseudoClassStateChanged(EXPLODED, false);
+    }
+
+    private void layoutButtons() {
+        int cells = rows * columns;
+
+        for (int index = buttonPool.size(); index < cells; index++) {
+            buttonPool.add(createButton(index));
+        }
+
+        for (int index = 0; index < cells; index++) {
+            GridPane.setConstraints(buttonPool.get(index), index % columns, index / columns);
+        }
+
+        gridPane.getChildren().setAll(buttonPool.subList(0, cells));
+    }
+
+    @Override
+    public Node getNode() {
+        return scrollPane;
+    }
+
+    @Override
+    public void setOnCellClicked(final CellClickHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void update(final int index, final byte cell) {
+        var button = getButton(index);
+        byte status = Protocol.decodeStatus(cell);
+
+        button.pseudoClassStateChanged(FLAGGED, status == BoardStorage.MARKED);
+
+        // Revealed cells stay revealed until the next reset clears them.
+        if (status == BoardStorage.REVEALED) {
+            button.setText(BoardView.getCellContent(cell));
+            button.pseudoClassStateChanged(REVEALED, true);
+            button.pseudoClassStateChanged(MINE, Protocol.decodeMine(cell));
+        }
+    }
+
+    @Override
+    public void attach(final BoardStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void refresh() {
+        if (storage == null) {
+            return;
+        }
+
+        for (int index = 0; index < rows * columns; index++) {
+            update(index, Protocol.encodeCell(storage, index));
+        }
+    }
+
+    @Override
+    public void showExplosion(final int index) {
+        getButton(index).pseudoClassStateChanged(EXPLODED, true);
+    }
+
+    @Override
+    public void setDisabled(final boolean disabled) {
+        gridPane.setDisable(disabled);
+    }
+
+    private Button getButton(final int index) {
+        List<Node> buttons = gridPane.getChildren();
+
+        return (Button) buttons.get(index);
+    }
+}
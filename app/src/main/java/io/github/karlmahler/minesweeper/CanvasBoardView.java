@@ -0,0 +1,263 @@
+package io.github.karlmahler.minesweeper;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+final class CanvasBoardView extends Region implements BoardView {
+    private static final double CELL_SIZE = 24.0;
+    private static final double CELL_GAP = 1.0;
+    private static final double MAXIMUM_VIEWPORT_SIZE = 720.0;
+    private static final Color BACKGROUND_COLOR = Color.DARKGRAY;
+    private static final Color HIDDEN_COLOR = Color.LIGHTGRAY;
+    private static final Color MARKED_COLOR = Color.LIGHTGREEN;
+    private static final Color REVEALED_COLOR = Color.LIGHTSTEELBLUE;
+    private static final Color EXPLODED_COLOR = Color.RED;
+    private static final Color TEXT_COLOR = Color.BLACK;
+
+    private final Canvas canvas;
+    private final ScrollBar horizontalScrollBar;
+    private final ScrollBar verticalScrollBar;
+    private final AnimationTimer repaintTimer;
+    private final ChordGesture chordGesture;
+    private BoardStorage storage;
+    private int rows;
+    private int columns;
+    private CellClickHandler handler;
+    private boolean disabled;
+    private boolean fullRepaint;
+    private int explodedIndex;
+
+    CanvasBoardView(final Board board) {
+        this.canvas = new Canvas();
+        this.horizontalScrollBar = createScrollBar(Orientation.HORIZONTAL);
+        this.verticalScrollBar = createScrollBar(Orientation.VERTICAL);
+        this.repaintTimer = createRepaintTimer();
+        this.chordGesture = new ChordGesture();
+
+        canvas.setOnMousePressed(chordGesture::press);
+        canvas.setOnMouseClicked(this::onMouseClicked);
+        setOnScroll(this::onScroll);
+        getChildren().addAll(canvas, horizontalScrollBar, verticalScrollBar);
+        reset(board);
+    }
+
+    @Override
+    public void reset(final Board board) {
+        this.storage = null;
+        this.rows = board.getRows();
+        this.columns = board.getColumns();
+        this.disabled = false;
+        this.explodedIndex = -1;
+
+        horizontalScrollBar.setValue(0.0);
+        verticalScrollBar.setValue(0.0);
+        requestLayout();
+        requestFullRepaint();
+    }
+
+    private ScrollBar createScrollBar(final Orientation orientation) {
+        var scrollBar = new ScrollBar();
+
+        scrollBar.setOrientation(orientation);
+        scrollBar.setMin(0.0);
+        scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> requestFullRepaint());
+
+        return scrollBar;
+    }
+
+    private AnimationTimer createRepaintTimer() {
+        return new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                repaint();
+                stop();
+            }
+        };
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public void setOnCellClicked(final CellClickHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void update(final int index, final byte cell) {
+        // A pending full repaint covers this cell anyway.
+        if (!fullRepaint) {
+            paintCell(canvas.getGraphicsContext2D(), index, cell);
+        }
+    }
+
+    @Override
+    public void attach(final BoardStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void refresh() {
+        requestFullRepaint();
+    }
+
+    @Override
+    public void showExplosion(final int index) {
+        this.explodedIndex = index;
+
+        update(index, getCell(index));
+    }
+
+    @Override
+    public void setDisabled(final boolean disabled) {
+        this.disabled = disabled;
+    }
+
+    @Override
+    protected double computePrefWidth(final double height) {
+        return Math.min(columns * CELL_SIZE, MAXIMUM_VIEWPORT_SIZE) + verticalScrollBar.prefWidth(-1);
+    }
+
+    @Override
+    protected double computePrefHeight(final double width) {
+        return Math.min(rows * CELL_SIZE, MAXIMUM_VIEWPORT_SIZE) + horizontalScrollBar.prefHeight(-1);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double scrollBarWidth = verticalScrollBar.prefWidth(-1);
+        double scrollBarHeight = horizontalScrollBar.prefHeight(-1);
+        double viewportWidth = Math.max(getWidth() - scrollBarWidth, 0.0);
+        double viewportHeight = Math.max(getHeight() - scrollBarHeight, 0.0);
+
+        canvas.setWidth(viewportWidth);
+        canvas.setHeight(viewportHeight);
+        canvas.relocate(0.0, 0.0);
+
+        horizontalScrollBar.resizeRelocate(0.0, viewportHeight, viewportWidth, scrollBarHeight);
+        verticalScrollBar.resizeRelocate(viewportWidth, 0.0, scrollBarWidth, viewportHeight);
+
+        configureScrollBar(horizontalScrollBar, columns * CELL_SIZE, viewportWidth);
+        configureScrollBar(verticalScrollBar, rows * CELL_SIZE, viewportHeight);
+
+        requestFullRepaint();
+    }
+
+    private void configureScrollBar(final ScrollBar scrollBar, final double contentSize, final double viewportSize) {
+        double maximum = Math.max(contentSize - viewportSize, 0.0);
+
+        scrollBar.setMax(maximum);
+        scrollBar.setVisibleAmount(viewportSize);
+        scrollBar.setUnitIncrement(CELL_SIZE);
+        scrollBar.setBlockIncrement(viewportSize);
+        scrollBar.setValue(Math.min(scrollBar.getValue(), maximum));
+    }
+
+    private void requestFullRepaint() {
+        this.fullRepaint = true;
+        repaintTimer.start();
+    }
+
+    private void repaint() {
+        repaintViewport(canvas.getGraphicsContext2D());
+        this.fullRepaint = false;
+    }
+
+    private void repaintViewport(final GraphicsContext graphics) {
+        graphics.setFill(BACKGROUND_COLOR);
+        graphics.fillRect(0.0, 0.0, canvas.getWidth(), canvas.getHeight());
+
+        int firstRow = (int) (verticalScrollBar.getValue() / CELL_SIZE);
+        int firstColumn = (int) (horizontalScrollBar.getValue() / CELL_SIZE);
+        int lastRow = Math.min((int) ((verticalScrollBar.getValue() + canvas.getHeight()) / CELL_SIZE), rows - 1);
+        int lastColumn = Math.min((int) ((horizontalScrollBar.getValue() + canvas.getWidth()) / CELL_SIZE), columns - 1);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int index = row * columns + column;
+
+                paintCell(graphics, index, getCell(index));
+            }
+        }
+    }
+
+    private byte getCell(final int index) {
+        return storage == null ? BoardStorage.HIDDEN : Protocol.encodeCell(storage, index);
+    }
+
+    private void paintCell(final GraphicsContext graphics, final int index, final byte cell) {
+        int row = index / columns;
+        int column = index % columns;
+        double x = column * CELL_SIZE - horizontalScrollBar.getValue();
+        double y = row * CELL_SIZE - verticalScrollBar.getValue();
+
+        if (x + CELL_SIZE < 0.0 || y + CELL_SIZE < 0.0 || x > canvas.getWidth() || y > canvas.getHeight()) {
+            return;
+        }
+
+        byte status = Protocol.decodeStatus(cell);
+
+        graphics.setFill(getCellColor(index, status));
+        graphics.fillRect(x + CELL_GAP, y + CELL_GAP, CELL_SIZE - 2 * CELL_GAP, CELL_SIZE - 2 * CELL_GAP);
+
+        if (status == BoardStorage.REVEALED) {
+            graphics.setFill(TEXT_COLOR);
+            graphics.setTextAlign(TextAlignment.CENTER);
+            graphics.setTextBaseline(VPos.CENTER);
+            graphics.fillText(BoardView.getCellContent(cell), x + CELL_SIZE / 2, y + CELL_SIZE / 2);
+        }
+    }
+
+    private Color getCellColor(final int index, final byte status) {
+        if (index == explodedIndex) {
+            return EXPLODED_COLOR;
+        }
+
+        return switch (status) {
+            case BoardStorage.MARKED -> MARKED_COLOR;
+            case BoardStorage.REVEALED -> REVEALED_COLOR;
+            default -> HIDDEN_COLOR;
+        };
+    }
+
+    private void onMouseClicked(final MouseEvent event) {
+        var button = chordGesture.translate(event);
+
+        if (disabled || handler == null || button == null) {
+            return;
+        }
+
+        int row = (int) ((event.getY() + verticalScrollBar.getValue()) / CELL_SIZE);
+        int column = (int) ((event.getX() + horizontalScrollBar.getValue()) / CELL_SIZE);
+
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return;
+        }
+
+        handler.onCellClicked(row * columns + column, button);
+    }
+
+    private void onScroll(final ScrollEvent event) {
+        scrollBy(verticalScrollBar, -event.getDeltaY());
+        scrollBy(horizontalScrollBar, -event.getDeltaX());
+        event.consume();
+    }
+
+    private void scrollBy(final ScrollBar scrollBar, final double delta) {
+        double value = scrollBar.getValue() + delta;
+
+        scrollBar.setValue(Math.max(scrollBar.getMin(), Math.min(value, scrollBar.getMax())));
+    }
+}
@@ -7,58 +7,66 @@ public final class Cell {
     private static final String MINE_SYMBOL = "*";
     private static final String NON_MINE_SYMBOL = "+";
 
-    private final boolean mine;
-    private int adjacentMines;
-    private Status status;
+    private final BoardStorage storage;
+    private final int index;
 
     public Cell(final boolean mine) {
-        this.mine = mine;
-        this.adjacentMines = 0;
-        this.status = Status.HIDDEN;
+        this(new PackedBoardStorage(1, 1), 0);
+
+        storage.setMine(index, mine);
+    }
+
+    Cell(final BoardStorage storage, final int index) {
+        this.storage = storage;
+        this.index = index;
     }
 
     public boolean hasMine() {
-        return mine;
+        return storage.hasMine(index);
     }
 
     public void setMarked() {
-        if (status != Status.REVEALED) {
-            this.status = Status.MARKED;
+        if (getStatus() != BoardStorage.REVEALED) {
+            storage.setStatus(index, BoardStorage.MARKED);
         }
     }
 
     public void unsetMarked() {
-        if (status != Status.REVEALED) {
-            this.status = Status.HIDDEN;
+        if (getStatus() != BoardStorage.REVEALED) {
+            storage.setStatus(index, BoardStorage.HIDDEN);
         }
     }
 
     public void setRevealed() {
-        if (status != Status.MARKED) {
-            this.status = Status.REVEALED;
+        if (getStatus() != BoardStorage.MARKED) {
+            storage.setStatus(index, BoardStorage.REVEALED);
         }
     }
 
     public boolean isHidden() {
-        return status == status.HIDDEN;
+        return getStatus() == BoardStorage.HIDDEN;
     }
 
     public boolean isRevealed() {
-        return status == status.REVEALED;
+        return getStatus() == BoardStorage.REVEALED;
     }
 
     public boolean isMarked() {
-        return status == status.MARKED;
+        return getStatus() == BoardStorage.MARKED;
     }
 
     public int getAdjacentMines() {
-        return adjacentMines;
+        return storage.getAdjacentMines(index);
     }
 
     public void setAdjacentMines(final int adjacentMines) {
         validateAdjacentMines(adjacentMines);
 
-        this.adjacentMines = adjacentMines;
+        storage.setAdjacentMines(index, adjacentMines);
+    }
+
+    private byte getStatus() {
+        return storage.getStatus(index);
     }
 
     private void validateAdjacentMines(final int adjacentMines) {
@@ -75,18 +83,26 @@ public final class Cell {
         }
     }
 
+    @Override
+    public boolean equals(final Object object) {
+        return (
+            object instanceof Cell other &&
+            storage == other.storage &&
+            index == other.index
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(storage) + index;
+    }
+
     @Override
     public String toString() {
         return String.format(
             "(%s %d)",
-            mine ? MINE_SYMBOL : NON_MINE_SYMBOL,
-            adjacentMines
+            hasMine() ? MINE_SYMBOL : NON_MINE_SYMBOL,
+            getAdjacentMines()
         );
     }
-
-    private static enum Status {
-        HIDDEN,
-        MARKED,
-        REVEALED;
-    }
 }
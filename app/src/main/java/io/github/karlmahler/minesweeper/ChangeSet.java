@@ -0,0 +1,70 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.Arrays;
+
+public final class ChangeSet {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int limit;
+    private int[] indices;
+    private int size;
+    private boolean overflowed;
+
+    public ChangeSet() {
+        this(Integer.MAX_VALUE);
+    }
+
+    // Past the limit further changes are dropped and the set reports itself
+    // overflowed, telling views to repaint everything instead.
+    public ChangeSet(final int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException(String.format("invalid change limit %d", limit));
+        }
+
+        this.limit = limit;
+        this.indices = new int[Math.min(INITIAL_CAPACITY, limit)];
+        this.size = 0;
+    }
+
+    public void add(final int index) {
+        if (size == limit) {
+            this.overflowed = true;
+            return;
+        }
+
+        if (size == indices.length) {
+            this.indices = Arrays.copyOf(indices, (int) Math.min((long) indices.length * 2, limit));
+        }
+
+        indices[size++] = index;
+    }
+
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    public int get(final int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(position);
+        }
+
+        return indices[position];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+        this.overflowed = false;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(indices, size);
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.karlmahler.minesweeper;
+
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+// Turns a release of one button while the other is still held into a chord,
+// reported as MouseButton.MIDDLE like a middle click, and swallows the
+// release of the button that was still down so the chord is not followed by
+// a stray reveal or flag. That release may never arrive as a click, e.g. when
+// it happens over another cell, so any fresh single-button press starts over.
+final class ChordGesture {
+    private boolean awaitingSecondRelease;
+
+    void press(final MouseEvent event) {
+        press(event.getButton(), event.isPrimaryButtonDown(), event.isSecondaryButtonDown());
+    }
+
+    void press(final MouseButton button, final boolean primaryDown, final boolean secondaryDown) {
+        boolean otherButtonDown = button == MouseButton.PRIMARY ? secondaryDown : primaryDown;
+
+        if (!otherButtonDown) {
+            this.awaitingSecondRelease = false;
+        }
+    }
+
+    // Returns the button the click stands for, or null if it should be ignored.
+    MouseButton translate(final MouseEvent event) {
+        return translate(event.getButton(), event.isPrimaryButtonDown(), event.isSecondaryButtonDown());
+    }
+
+    MouseButton translate(final MouseButton button, final boolean primaryDown, final boolean secondaryDown) {
+        if (button == MouseButton.PRIMARY || button == MouseButton.SECONDARY) {
+            if (primaryDown || secondaryDown) {
+                this.awaitingSecondRelease = true;
+
+                return MouseButton.MIDDLE;
+            }
+
+            if (awaitingSecondRelease) {
+                this.awaitingSecondRelease = false;
+
+                return null;
+            }
+        }
+
+        return button;
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.karlmahler.minesweeper;
+
+// The packed one-byte-per-cell layout split over fixed-size chunks, so very
+// large boards never need one contiguous array the heap may not be able to
+// place.
+public final class ChunkedBoardStorage implements BoardStorage {
+    private static final int CHUNK_SHIFT = 22;
+    private static final int CHUNK_CELLS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_CELLS - 1;
+
+    private final PackedBoardStorage[] chunks;
+    private final int rows;
+    private final int columns;
+
+    public ChunkedBoardStorage(final int rows, final int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("board dimensions must not be negative");
+        }
+
+        long cells = (long) rows * columns;
+
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("a %d x %d board has too many cells to index", rows, columns));
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.chunks = new PackedBoardStorage[(int) ((cells + CHUNK_CELLS - 1) >>> CHUNK_SHIFT)];
+
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            chunks[chunk] = new PackedBoardStorage(1, (int) Math.min(CHUNK_CELLS, cells - ((long) chunk << CHUNK_SHIFT)));
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasMine(final int index) {
+        return chunks[index >>> CHUNK_SHIFT].hasMine(index & CHUNK_MASK);
+    }
+
+    @Override
+    public void setMine(final int index, final boolean mine) {
+        chunks[index >>> CHUNK_SHIFT].setMine(index & CHUNK_MASK, mine);
+    }
+
+    @Override
+    public int getAdjacentMines(final int index) {
+        return chunks[index >>> CHUNK_SHIFT].getAdjacentMines(index & CHUNK_MASK);
+    }
+
+    @Override
+    public void setAdjacentMines(final int index, final int adjacentMines) {
+        chunks[index >>> CHUNK_SHIFT].setAdjacentMines(index & CHUNK_MASK, adjacentMines);
+    }
+
+    @Override
+    public byte getStatus(final int index) {
+        return chunks[index >>> CHUNK_SHIFT].getStatus(index & CHUNK_MASK);
+    }
+
+    @Override
+    public void setStatus(final int index, final byte status) {
+        chunks[index >>> CHUNK_SHIFT].setStatus(index & CHUNK_MASK, status);
+    }
+}
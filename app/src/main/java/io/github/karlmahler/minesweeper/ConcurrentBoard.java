@@ -0,0 +1,208 @@
+package io.github.karlmahler.minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// A board that many players can act on at once. The mine layout is read-only
+// after generation; each cell's status is a byte updated only through CAS, so
+// every transition (HIDDEN -> MARKED -> HIDDEN, HIDDEN/MARKED -> REVEALED) has
+// exactly one winner and overlapping flood fills never reveal a cell twice.
+public final class ConcurrentBoard {
+    private static final VarHandle STATUS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final BoardStorage layout;
+    private final Neighbourhood neighbourhood;
+    private final byte[] statuses;
+    private final int rows;
+    private final int columns;
+    private final int mineCount;
+    private final LongAdder revealedCells;
+    private final LongAdder flaggedCells;
+    private final ThreadLocal<Cascade> cascades;
+
+    // The layout's mines and adjacent counts must not change afterwards; its statuses are ignored.
+    public ConcurrentBoard(final BoardStorage layout) {
+        this.layout = layout;
+        this.neighbourhood = new Neighbourhood(layout);
+        this.rows = layout.getRows();
+        this.columns = layout.getColumns();
+        this.statuses = new byte[layout.getCellCount()];
+        this.mineCount = countMines(layout);
+        this.revealedCells = new LongAdder();
+        this.flaggedCells = new LongAdder();
+        this.cascades = ThreadLocal.withInitial(Cascade::new);
+    }
+
+    private static int countMines(final BoardStorage layout) {
+        int mines = 0;
+
+        for (int index = 0; index < layout.getCellCount(); index++) {
+            if (layout.hasMine(index)) {
+                mines++;
+            }
+        }
+
+        return mines;
+    }
+
+    public byte getStatus(final int index) {
+        return (byte) STATUS.getAcquire(statuses, index);
+    }
+
+    private boolean transition(final int index, final byte from, final byte to) {
+        return STATUS.compareAndSet(statuses, index, from, to);
+    }
+
+    public boolean mark(final int index) {
+        if (!transition(index, BoardStorage.HIDDEN, BoardStorage.MARKED)) {
+            return false;
+        }
+
+        flaggedCells.increment();
+
+        return true;
+    }
+
+    public boolean unmark(final int index) {
+        if (!transition(index, BoardStorage.MARKED, BoardStorage.HIDDEN)) {
+            return false;
+        }
+
+        flaggedCells.decrement();
+
+        return true;
+    }
+
+    // Reveals a hidden cell and returns whether it was a mine. The cells this
+    // call won are appended to changes, which is only an output: the cascade
+    // keeps its work list in a per-thread stack, so a limited or overflowing
+    // ChangeSet never cuts it short.
+    public boolean reveal(final int index, final ChangeSet changes) {
+        if (!transition(index, BoardStorage.HIDDEN, BoardStorage.REVEALED)) {
+            return false;
+        }
+
+        changes.add(index);
+
+        if (layout.hasMine(index)) {
+            return true;
+        }
+
+        int revealed = 1;
+
+        if (layout.getAdjacentMines(index) == 0) {
+            var cascade = cascades.get();
+
+            cascade.push(index);
+
+            while (cascade.size > 0) {
+                revealed += claimNeighbours(cascade.pop(), cascade, changes);
+            }
+        }
+
+        revealedCells.add(revealed);
+
+        return false;
+    }
+
+    // Returns how many neighbours this cascade won.
+    private int claimNeighbours(final int index, final Cascade cascade, final ChangeSet changes) {
+        int count = neighbourhood.collect(index, cascade.neighbours);
+        int claimed = 0;
+
+        for (int i = 0; i < count; i++) {
+            int neighbour = cascade.neighbours[i];
+
+            if (claim(neighbour)) {
+                changes.add(neighbour);
+                claimed++;
+
+                if (layout.getAdjacentMines(neighbour) == 0) {
+                    cascade.push(neighbour);
+                }
+            }
+        }
+
+        return claimed;
+    }
+
+    // Wins a cell for the current cascade, clearing a flag if one is in the way.
+    private boolean claim(final int index) {
+        while (true) {
+            byte status = getStatus(index);
+
+            if (status == BoardStorage.REVEALED) {
+                return false;
+            }
+
+            if (transition(index, status, BoardStorage.REVEALED)) {
+                if (status == BoardStorage.MARKED) {
+                    flaggedCells.decrement();
+                }
+
+                return true;
+            }
+        }
+    }
+
+    public boolean hasMine(final int index) {
+        return layout.hasMine(index);
+    }
+
+    public int getAdjacentMines(final int index) {
+        return layout.getAdjacentMines(index);
+    }
+
+    public boolean isCleared() {
+        return revealedCells.sum() == (long) statuses.length - mineCount;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    public long getRevealedCells() {
+        return revealedCells.sum();
+    }
+
+    public long getFlaggedCells() {
+        return flaggedCells.sum();
+    }
+
+    // One thread's flood-fill work list, reused by every reveal it makes.
+    private static final class Cascade {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private final int[] neighbours;
+        private int[] stack;
+        private int size;
+
+        private Cascade() {
+            this.neighbours = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+            this.stack = new int[INITIAL_CAPACITY];
+            this.size = 0;
+        }
+
+        private void push(final int index) {
+            if (size == stack.length) {
+                this.stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+
+            stack[size++] = index;
+        }
+
+        private int pop() {
+            return stack[--size];
+        }
+    }
+}
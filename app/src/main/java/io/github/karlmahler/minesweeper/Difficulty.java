@@ -0,0 +1,23 @@
+package io.github.karlmahler.minesweeper;
+
+public enum Difficulty {
+    EASY(8, 15.0),
+    MEDIUM(12, 18.0),
+    HARD(18, 22.0);
+
+    private final int boardSize;
+    private final double mineProbability;
+
+    private Difficulty(final int boardSize, final double mineProbability) {
+        this.boardSize = boardSize;
+        this.mineProbability = mineProbability;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public double getMineProbability() {
+        return mineProbability;
+    }
+}
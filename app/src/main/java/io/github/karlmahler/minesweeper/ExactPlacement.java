@@ -0,0 +1,92 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.random.RandomGenerator;
+
+final class ExactPlacement implements MinePlacement {
+    private final int mineCount;
+
+    ExactPlacement(final int mineCount) {
+        if (mineCount < 0) {
+            throw new IllegalArgumentException("mine count must not be negative");
+        }
+
+        this.mineCount = mineCount;
+    }
+
+    int getMineCount() {
+        return mineCount;
+    }
+
+    @Override
+    public int place(final BoardStorage storage, final int startRow, final int startColumn, final RandomGenerator random) {
+        int candidates = storage.getCellCount() - countSafeCells(storage, startRow, startColumn);
+
+        if (mineCount > candidates) {
+            throw new IllegalArgumentException(String.format(
+                    "cannot place %d mines on %d free cells",
+                    mineCount,
+                    candidates
+                )
+            );
+        }
+
+        // Rejection sampling stays O(mines) while at most half of the free cells
+        // are drawn; denser boards are filled completely and then thinned out.
+        if (mineCount <= candidates / 2) {
+            sample(storage, mineCount, true, startRow, startColumn, random);
+        } else {
+            fillCandidates(storage, startRow, startColumn);
+            sample(storage, candidates - mineCount, false, startRow, startColumn, random);
+        }
+
+        return mineCount;
+    }
+
+    private void sample(
+        final BoardStorage storage,
+        final int count,
+        final boolean mine,
+        final int startRow,
+        final int startColumn,
+        final RandomGenerator random
+    ) {
+        int cells = storage.getCellCount();
+        int columns = storage.getColumns();
+        int sampled = 0;
+
+        while (sampled < count) {
+            int index = random.nextInt(cells);
+            int row = index / columns;
+
+            if (MinePlacement.isNearStartCell(row, startRow, index - row * columns, startColumn)) {
+                continue;
+            }
+
+            if (storage.hasMine(index) == mine) {
+                continue;
+            }
+
+            storage.setMine(index, mine);
+            sampled++;
+        }
+    }
+
+    private void fillCandidates(final BoardStorage storage, final int startRow, final int startColumn) {
+        int columns = storage.getColumns();
+
+        for (int row = 0; row < storage.getRows(); row++) {
+            for (int column = 0; column < columns; column++) {
+                if (!MinePlacement.isNearStartCell(row, startRow, column, startColumn)) {
+                    storage.setMine(row * columns + column, true);
+                }
+            }
+        }
+    }
+
+    private int countSafeCells(final BoardStorage storage, final int startRow, final int startColumn) {
+        int rows = Math.min(startRow + 1, storage.getRows() - 1) - Math.max(startRow - 1, 0) + 1;
+        int columns = Math.min(startColumn + 1, storage.getColumns() - 1) - Math.max(startColumn - 1, 0) + 1;
+
+        return Math.max(rows, 0) * Math.max(columns, 0);
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.random.RandomGenerator;
+
+final class FixedPlacement implements MinePlacement {
+    private final BoardStorage layout;
+
+    FixedPlacement(final BoardStorage layout) {
+        this.layout = layout;
+    }
+
+    @Override
+    public int place(final BoardStorage storage, final int startRow, final int startColumn, final RandomGenerator random) {
+        if (storage.getCellCount() != layout.getCellCount()) {
+            throw new IllegalArgumentException("the layout does not match the board dimensions");
+        }
+
+        int mines = 0;
+
+        for (int index = 0; index < layout.getCellCount(); index++) {
+            boolean mine = layout.hasMine(index);
+
+            storage.setMine(index, mine);
+
+            if (mine) {
+                mines++;
+            }
+        }
+
+        return mines;
+    }
+}
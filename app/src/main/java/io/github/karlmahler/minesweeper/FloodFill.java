@@ -0,0 +1,99 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+public final class FloodFill {
+    private static final int INITIAL_STACK_CAPACITY = 256;
+    // How many cells are expanded between checks for an interrupted thread.
+    private static final int INTERRUPT_CHECK_MASK = (1 << 14) - 1;
+
+    private final BoardStorage storage;
+    private final Neighbourhood neighbourhood;
+    private final int[] neighbours;
+    private int[] stack;
+    private int stackSize;
+    private int revealedCells;
+
+    public FloodFill(final BoardStorage storage) {
+        this(storage, new Neighbourhood(storage));
+    }
+
+    FloodFill(final BoardStorage storage, final Neighbourhood neighbourhood) {
+        this.storage = storage;
+        this.neighbourhood = neighbourhood;
+        this.neighbours = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+        this.stack = new int[INITIAL_STACK_CAPACITY];
+        this.stackSize = 0;
+    }
+
+    // Returns the number of flags the cascade had to clear. A cascade running
+    // on an interrupted thread stops with a CancellationException, leaving the
+    // board partly revealed.
+    public int reveal(final int index, final ChangeSet changes) {
+        this.revealedCells = 0;
+
+        if (storage.getStatus(index) != BoardStorage.HIDDEN || storage.hasMine(index)) {
+            return 0;
+        }
+
+        storage.setStatus(index, BoardStorage.REVEALED);
+        changes.add(index);
+        revealedCells++;
+
+        if (storage.getAdjacentMines(index) != 0) {
+            return 0;
+        }
+
+        int clearedFlags = 0;
+
+        this.stackSize = 0;
+        push(index);
+
+        int expanded = 0;
+
+        while (stackSize > 0) {
+            if ((++expanded & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("reveal cascade interrupted");
+            }
+
+            int count = neighbourhood.collect(stack[--stackSize], neighbours);
+
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                byte status = storage.getStatus(neighbour);
+
+                if (status == BoardStorage.REVEALED || storage.hasMine(neighbour)) {
+                    continue;
+                }
+
+                if (status == BoardStorage.MARKED) {
+                    clearedFlags++;
+                }
+
+                storage.setStatus(neighbour, BoardStorage.REVEALED);
+                changes.add(neighbour);
+                revealedCells++;
+
+                if (storage.getAdjacentMines(neighbour) == 0) {
+                    push(neighbour);
+                }
+            }
+        }
+
+        return clearedFlags;
+    }
+
+    // Counted separately from the change set, which may have overflowed.
+    public int getRevealedCells() {
+        return revealedCells;
+    }
+
+    private void push(final int index) {
+        if (stackSize == stack.length) {
+            this.stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+
+        stack[stackSize++] = index;
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.karlmahler.minesweeper;
+
+public final class Game {
+    private static final int NO_CELL = -1;
+
+    private final Board board;
+    private final MoveLog moves;
+    private final int[] neighbours;
+    private BoardStorage storage;
+    private Neighbourhood neighbourhood;
+    private GameState state;
+    private int explodedIndex;
+
+    public Game(final Board board) {
+        this.board = board;
+        this.moves = new MoveLog();
+        this.neighbours = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+        this.state = GameState.READY;
+        this.explodedIndex = NO_CELL;
+    }
+
+    public ChangeSet reveal(final int row, final int column) {
+        return reveal(indexOf(row, column));
+    }
+
+    // The returned change set is the board's change log, cleared at the start of every move.
+    public ChangeSet reveal(final int index) {
+        board.clearChanges();
+        recordMove(MoveLog.REVEAL, index);
+
+        if (state == GameState.READY) {
+            start(index);
+        }
+
+        if (state == GameState.PLAYING) {
+            revealCell(index);
+            evaluate();
+        }
+
+        return board.getChanges();
+    }
+
+    public ChangeSet flag(final int row, final int column) {
+        return flag(indexOf(row, column));
+    }
+
+    public ChangeSet flag(final int index) {
+        board.clearChanges();
+        recordMove(MoveLog.FLAG, index);
+
+        if (state != GameState.PLAYING) {
+            return board.getChanges();
+        }
+
+        if (!board.unmark(index) && getRemainingFlags() > 0) {
+            board.mark(index);
+        }
+
+        return board.getChanges();
+    }
+
+    public ChangeSet chord(final int row, final int column) {
+        return chord(indexOf(row, column));
+    }
+
+    public ChangeSet chord(final int index) {
+        board.clearChanges();
+        recordMove(MoveLog.CHORD, index);
+
+        if (state != GameState.PLAYING || !canChord(index)) {
+            return board.getChanges();
+        }
+
+        int count = neighbourhood.collect(index, neighbours);
+
+        for (int i = 0; i < count; i++) {
+            revealCell(neighbours[i]);
+        }
+
+        evaluate();
+
+        return board.getChanges();
+    }
+
+    private void recordMove(final byte type, final int index) {
+        if (!state.isOver()) {
+            moves.add(type, index);
+        }
+    }
+
+    private boolean canChord(final int index) {
+        if (storage.getStatus(index) != BoardStorage.REVEALED) {
+            return false;
+        }
+
+        int adjacentMines = storage.getAdjacentMines(index);
+
+        return adjacentMines > 0 && neighbourhood.countWithStatus(storage, index, BoardStorage.MARKED) == adjacentMines;
+    }
+
+    private void start(final int index) {
+        int columns = board.getColumns();
+
+        board.buildGrid(index / columns, index % columns);
+
+        this.storage = board.getStorage();
+        this.neighbourhood = board.getNeighbourhood();
+        this.state = GameState.PLAYING;
+    }
+
+    private void revealCell(final int index) {
+        if (board.reveal(index) && explodedIndex == NO_CELL) {
+            this.explodedIndex = index;
+        }
+    }
+
+    // Only the counters are consulted, and the end-of-game reveal walks the mines only.
+    private void evaluate() {
+        if (explodedIndex != NO_CELL) {
+            this.state = GameState.LOST;
+            board.revealMines();
+        } else if (board.isCleared()) {
+            this.state = GameState.WON;
+            board.revealMines();
+        }
+    }
+
+    private int indexOf(final int row, final int column) {
+        return row * board.getColumns() + column;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public MoveLog getMoves() {
+        return moves;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public int getRemainingFlags() {
+        return board.getMineCount() - board.getFlaggedCells();
+    }
+
+    public int getMineCount() {
+        return board.getMineCount();
+    }
+
+    public int getRevealedCells() {
+        return board.getRevealedCells();
+    }
+
+    public int getExplodedIndex() {
+        return explodedIndex;
+    }
+}
@@ -0,0 +1,415 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Layout: header (magic, version), game records, an index of record offsets
+// and a footer (index offset, game count, magic). Records hold the board
+// dimensions, a bit-packed mine layout, two status bits per cell and the
+// move log as zigzag varints of index deltas with the move type in the low bits.
+public final class GameArchive {
+    private static final int MAGIC = 0x4D535741;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int FOOTER_SIZE = Long.BYTES + 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = 5 * Integer.BYTES;
+    private static final int STATUS_BITS = 2;
+    private static final int MOVE_TYPE_BITS = 2;
+    private static final long MAXIMUM_WINDOW_SIZE = 1L << 30;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    private GameArchive() {
+    }
+
+    public static Writer create(final Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    public static Reader open(final Path path) throws IOException {
+        return new Reader(path);
+    }
+
+    private static int mineBytes(final int cells) {
+        return (cells + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    private static int statusBytes(final int cells) {
+        return (int) ((cells * (long) STATUS_BITS + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    private static IOException corrupted(final String reason) {
+        return new IOException(String.format("not a valid game archive: %s", reason));
+    }
+
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private ByteBuffer buffer;
+        private long[] offsets;
+        private int count;
+        private long position;
+
+        private Writer(final Path path) throws IOException {
+            this.channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            );
+            this.buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            this.offsets = new long[INITIAL_BUFFER_SIZE / Long.BYTES];
+            this.count = 0;
+
+            buffer.clear();
+            buffer.putInt(MAGIC).putInt(VERSION);
+            flush();
+        }
+
+        public void write(final Game game) throws IOException {
+            var storage = game.getBoard().getStorage();
+
+            if (storage == null) {
+                throw new IllegalArgumentException("only started games can be archived");
+            }
+
+            int cells = storage.getCellCount();
+            byte[] moves = encodeMoves(game.getMoves());
+            long size = (long) RECORD_HEADER_SIZE + mineBytes(cells) + statusBytes(cells) + moves.length;
+
+            ensureCapacity(size);
+
+            buffer.clear();
+            buffer
+                .putInt(storage.getRows())
+                .putInt(storage.getColumns())
+                .putInt(game.getMineCount())
+                .putInt(game.getMoves().size())
+                .putInt(moves.length);
+
+            putMines(storage);
+            putStatuses(storage);
+            buffer.put(moves);
+
+            addOffset(position);
+            flush();
+        }
+
+        private void putMines(final BoardStorage storage) {
+            int current = 0;
+            int bits = 0;
+
+            for (int index = 0; index < storage.getCellCount(); index++) {
+                if (storage.hasMine(index)) {
+                    current |= 1 << bits;
+                }
+
+                if (++bits == Byte.SIZE) {
+                    buffer.put((byte) current);
+                    current = 0;
+                    bits = 0;
+                }
+            }
+
+            if (bits > 0) {
+                buffer.put((byte) current);
+            }
+        }
+
+        private void putStatuses(final BoardStorage storage) {
+            int current = 0;
+            int bits = 0;
+
+            for (int index = 0; index < storage.getCellCount(); index++) {
+                current |= storage.getStatus(index) << bits;
+                bits += STATUS_BITS;
+
+                if (bits == Byte.SIZE) {
+                    buffer.put((byte) current);
+                    current = 0;
+                    bits = 0;
+                }
+            }
+
+            if (bits > 0) {
+                buffer.put((byte) current);
+            }
+        }
+
+        private static byte[] encodeMoves(final MoveLog moves) {
+            var encoded = new byte[moves.size() * 10];
+            int length = 0;
+            int previous = 0;
+
+            for (int position = 0; position < moves.size(); position++) {
+                int index = moves.getIndex(position);
+                long delta = (long) index - previous;
+                long zigzag = (delta << 1) ^ (delta >> 63);
+                long value = (zigzag << MOVE_TYPE_BITS) | moves.getType(position);
+
+                while ((value & ~0x7FL) != 0) {
+                    encoded[length++] = (byte) ((value & 0x7F) | 0x80);
+                    value >>>= 7;
+                }
+
+                encoded[length++] = (byte) value;
+                previous = index;
+            }
+
+            return Arrays.copyOf(encoded, length);
+        }
+
+        private void ensureCapacity(final long size) {
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("the game is too large for a single archive record");
+            }
+
+            if (size > buffer.capacity()) {
+                int capacity = (int) Math.min(Math.max(size, buffer.capacity() * 2L), Integer.MAX_VALUE);
+
+                this.buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        private void addOffset(final long offset) {
+            if (count == offsets.length) {
+                this.offsets = Arrays.copyOf(offsets, count * 2);
+            }
+
+            offsets[count++] = offset;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                long indexOffset = position;
+
+                for (int start = 0; start < count; start += buffer.capacity() / Long.BYTES) {
+                    int end = Math.min(count, start + buffer.capacity() / Long.BYTES);
+
+                    buffer.clear();
+
+                    for (int i = start; i < end; i++) {
+                        buffer.putLong(offsets[i]);
+                    }
+
+                    flush();
+                }
+
+                buffer.clear();
+                buffer.putLong(indexOffset).putInt(count).putInt(MAGIC);
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final long fileSize;
+        private final long indexOffset;
+        private final int count;
+        private final MappedByteBuffer index;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        private Reader(final Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+            try {
+                this.fileSize = channel.size();
+
+                if (fileSize < HEADER_SIZE + FOOTER_SIZE) {
+                    throw corrupted("file is too short");
+                }
+
+                var header = map(0L, HEADER_SIZE);
+                var footer = map(fileSize - FOOTER_SIZE, FOOTER_SIZE);
+
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw corrupted("unknown header");
+                }
+
+                this.indexOffset = footer.getLong();
+                this.count = footer.getInt();
+
+                if (footer.getInt() != MAGIC || indexOffset + (long) count * Long.BYTES != fileSize - FOOTER_SIZE) {
+                    throw corrupted("damaged footer");
+                }
+
+                this.index = map(indexOffset, (long) count * Long.BYTES);
+                this.windowStart = -1L;
+            } catch (IOException | RuntimeException exception) {
+                channel.close();
+                throw exception;
+            }
+        }
+
+        private MappedByteBuffer map(final long offset, final long size) throws IOException {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            return buffer;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        // The record reads straight from the mapped file and stays valid until the reader is closed.
+        public Record read(final int gameIndex) throws IOException {
+            if (gameIndex < 0 || gameIndex >= count) {
+                throw new IndexOutOfBoundsException(gameIndex);
+            }
+
+            long offset = index.getLong(gameIndex * Long.BYTES);
+            long end = gameIndex + 1 < count ? index.getLong((gameIndex + 1) * Long.BYTES) : indexOffset;
+
+            return new Record(slice(offset, end - offset));
+        }
+
+        private ByteBuffer slice(final long offset, final long length) throws IOException {
+            if (windowStart < 0 || offset < windowStart || offset + length > windowStart + window.capacity()) {
+                long size = Math.min(Math.max(MAXIMUM_WINDOW_SIZE, length), indexOffset - offset);
+
+                this.window = map(offset, size);
+                this.windowStart = offset;
+            }
+
+            return window
+                .slice((int) (offset - windowStart), (int) length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public static final class Record {
+        private final ByteBuffer data;
+        private final int rows;
+        private final int columns;
+        private final int mineCount;
+        private final int moveCount;
+        private final int moveBytes;
+        private final int minesOffset;
+        private final int statusOffset;
+        private final int movesOffset;
+
+        private Record(final ByteBuffer data) {
+            this.data = data;
+            this.rows = data.getInt(0);
+            this.columns = data.getInt(Integer.BYTES);
+            this.mineCount = data.getInt(2 * Integer.BYTES);
+            this.moveCount = data.getInt(3 * Integer.BYTES);
+            this.moveBytes = data.getInt(4 * Integer.BYTES);
+            this.minesOffset = RECORD_HEADER_SIZE;
+            this.statusOffset = minesOffset + mineBytes(rows * columns);
+            this.movesOffset = statusOffset + statusBytes(rows * columns);
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getColumns() {
+            return columns;
+        }
+
+        public int getMineCount() {
+            return mineCount;
+        }
+
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        public boolean hasMine(final int index) {
+            return (data.get(minesOffset + index / Byte.SIZE) >>> (index % Byte.SIZE) & 1) != 0;
+        }
+
+        public byte getStatus(final int index) {
+            int bit = index * STATUS_BITS;
+
+            return (byte) (data.get(statusOffset + bit / Byte.SIZE) >>> (bit % Byte.SIZE) & 0x03);
+        }
+
+        public MoveLog getMoves() {
+            var moves = new MoveLog();
+            int position = movesOffset;
+            int end = movesOffset + moveBytes;
+            int previous = 0;
+
+            while (position < end) {
+                long value = 0L;
+                int shift = 0;
+                byte current;
+
+                do {
+                    current = data.get(position++);
+                    value |= (long) (current & 0x7F) << shift;
+                    shift += 7;
+                } while ((current & 0x80) != 0);
+
+                long zigzag = value >>> MOVE_TYPE_BITS;
+                int index = (int) (previous + ((zigzag >>> 1) ^ -(zigzag & 1)));
+
+                moves.add((byte) (value & ((1 << MOVE_TYPE_BITS) - 1)), index);
+                previous = index;
+            }
+
+            return moves;
+        }
+
+        public BoardStorage toStorage() {
+            var storage = new PackedBoardStorage(rows, columns);
+
+            for (int index = 0; index < storage.getCellCount(); index++) {
+                storage.setMine(index, hasMine(index));
+                storage.setStatus(index, getStatus(index));
+            }
+
+            AdjacencyCounter.count(storage);
+
+            return storage;
+        }
+
+        // Plays the recorded moves again on the archived layout.
+        public Game replay() {
+            var layout = new PackedBoardStorage(rows, columns);
+
+            for (int index = 0; index < layout.getCellCount(); index++) {
+                layout.setMine(index, hasMine(index));
+            }
+
+            var board = new Board(rows, columns, MinePlacement.fixed(layout), BoardBackend.PACKED, new SplittableRandom());
+            var game = new Game(board);
+
+            getMoves().replay(game);
+
+            return game;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hosts one game session per connection, each on its own virtual thread doing
+// blocking channel I/O. Sessions process every complete frame they have read
+// before writing all the replies back in one go, and drop back to small
+// buffers once a large frame has been handled, so an idle session only costs
+// its buffers and its current board.
+public final class GameServer implements Closeable {
+    private static final String PORT_OPTION = "--port=";
+    private static final int DEFAULT_PORT = 7878;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int PROBABILITY_SCALE = 100;
+    private static final int MAXIMUM_PROBABILITY = 100 * PROBABILITY_SCALE;
+
+    private final ServerSocketChannel serverChannel;
+    private final Set<SocketChannel> connections;
+    private final Thread acceptor;
+
+    private GameServer(final ServerSocketChannel serverChannel) {
+        this.serverChannel = serverChannel;
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.acceptor = Thread.ofVirtual().name("minesweeper-acceptor").start(this::accept);
+    }
+
+    public static GameServer start(final InetSocketAddress address) throws IOException {
+        var serverChannel = ServerSocketChannel.open();
+
+        serverChannel.bind(address);
+
+        return new GameServer(serverChannel);
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    private void accept() {
+        while (serverChannel.isOpen()) {
+            try {
+                var channel = serverChannel.accept();
+
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                connections.add(channel);
+                Thread.ofVirtual().name("minesweeper-session").start(() -> {
+                    try (channel) {
+                        new Session(channel).serve();
+                    } catch (IOException exception) {
+                        // The client went away or broke the protocol; either way the session is over.
+                    } finally {
+                        connections.remove(channel);
+                    }
+                });
+            } catch (ClosedChannelException exception) {
+                return;
+            } catch (IOException exception) {
+                // A failed accept only loses that connection.
+            }
+        }
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+
+        for (var channel : connections) {
+            channel.close();
+        }
+    }
+
+    private static final class Session {
+        private final SocketChannel channel;
+        private ByteBuffer input;
+        private ByteBuffer output;
+        private int[] sortedChanges;
+        private int replyStart;
+        private Game game;
+
+        private Session(final SocketChannel channel) {
+            this.channel = channel;
+            this.input = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+            this.output = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+            this.sortedChanges = new int[0];
+        }
+
+        private void serve() throws IOException {
+            while (channel.read(input) >= 0) {
+                input.flip();
+
+                while (hasCompleteFrame()) {
+                    int length = input.getInt();
+                    var frame = input.slice(input.position(), length);
+
+                    input.position(input.position() + length);
+                    handleFrame(frame);
+                }
+
+                input.compact();
+                flush();
+            }
+        }
+
+        private boolean hasCompleteFrame() throws IOException {
+            if (input.remaining() < Protocol.FRAME_HEADER_SIZE) {
+                return false;
+            }
+
+            int length = input.getInt(input.position());
+
+            if (length < 0 || length > Protocol.MAXIMUM_FRAME_SIZE) {
+                throw new IOException(String.format("invalid frame length %d", length));
+            }
+
+            int frameSize = Protocol.FRAME_HEADER_SIZE + length;
+
+            if (input.remaining() >= frameSize) {
+                return true;
+            }
+
+            if (input.capacity() < frameSize) {
+                this.input = ByteBuffer.allocate(frameSize).put(input).flip();
+            }
+
+            return false;
+        }
+
+        private void flush() throws IOException {
+            writeOutput();
+
+            if (output.capacity() > INITIAL_BUFFER_SIZE) {
+                this.output = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+            } else {
+                output.clear();
+            }
+
+            if (input.capacity() > INITIAL_BUFFER_SIZE && input.position() <= INITIAL_BUFFER_SIZE) {
+                this.input = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).put(input.flip());
+            }
+
+            if (sortedChanges.length > INITIAL_BUFFER_SIZE) {
+                this.sortedChanges = new int[0];
+            }
+        }
+
+        private void writeOutput() throws IOException {
+            output.flip();
+
+            while (output.hasRemaining()) {
+                channel.write(output);
+            }
+
+            output.clear();
+        }
+
+        private void handleFrame(final ByteBuffer frame) throws IOException {
+            startReply();
+
+            while (frame.hasRemaining()) {
+                handleCommand(frame);
+            }
+
+            finishReply();
+        }
+
+        private void startReply() {
+            this.output = Protocol.ensureRemaining(output, Protocol.FRAME_HEADER_SIZE);
+            this.replyStart = output.position();
+            output.putInt(0);
+        }
+
+        private void finishReply() {
+            output.putInt(replyStart, output.position() - replyStart - Protocol.FRAME_HEADER_SIZE);
+        }
+
+        private void handleCommand(final ByteBuffer frame) throws IOException {
+            byte opcode = frame.get();
+
+            if (opcode == Protocol.NEW_GAME) {
+                int size = Protocol.getVarint(frame);
+                int probability = Protocol.getVarint(frame);
+
+                Protocol.requireRemaining(frame, Long.BYTES);
+                newGame(size, probability, frame.getLong());
+                writeResult(null);
+                return;
+            }
+
+            if (opcode != Protocol.REVEAL && opcode != Protocol.FLAG && opcode != Protocol.CHORD) {
+                throw new IOException(String.format("unknown opcode %d", opcode));
+            }
+
+            if (game == null) {
+                throw new IOException("a move was sent before any game was started");
+            }
+
+            int index = Protocol.getVarint(frame);
+            if (index < 0 || index >= game.getBoard().getCellCount()) {
+                throw new IOException(String.format("cell index %d is outside the board", index));
+            }
+
+            var changes = switch (opcode) {
+                case Protocol.REVEAL -> game.reveal(index);
+                case Protocol.FLAG -> game.flag(index);
+                case Protocol.CHORD -> game.chord(index);
+                default -> throw new IOException(String.format("unknown opcode %d", opcode));
+            };
+
+            writeResult(changes);
+        }
+
+        private void newGame(final int size, final int probability, final long seed) throws IOException {
+            if (size < 1 || size > Protocol.MAXIMUM_BOARD_SIZE || probability < 0 || probability > MAXIMUM_PROBABILITY) {
+                throw new IOException(String.format("invalid game of size %d with probability %d", size, probability));
+            }
+
+            var placement = MinePlacement.probability((double) probability / PROBABILITY_SCALE);
+
+            this.game = new Game(new Board(size, placement, BoardBackend.PACKED, new SplittableRandom(seed)));
+        }
+
+        private void writeResult(final ChangeSet changes) throws IOException {
+            int count = changes == null ? 0 : changes.size();
+            int resultSize = Protocol.getMaximumResultSize(count);
+
+            // A result that might not fit closes the reply so far, which is
+            // sent right away, so a session never buffers more than about two
+            // replies however many commands a request holds.
+            if (output.position() - replyStart - Protocol.FRAME_HEADER_SIZE + resultSize > Protocol.MAXIMUM_REPLY_SIZE) {
+                finishReply();
+                writeOutput();
+                startReply();
+            }
+
+            this.output = Protocol.ensureRemaining(output, resultSize);
+            output.put((byte) game.getState().ordinal());
+            Protocol.putVarint(output, count);
+
+            if (count == 0) {
+                return;
+            }
+
+            if (sortedChanges.length < count) {
+                this.sortedChanges = new int[Math.max(count, sortedChanges.length * 2)];
+            }
+
+            for (int i = 0; i < count; i++) {
+                sortedChanges[i] = changes.get(i);
+            }
+
+            Arrays.sort(sortedChanges, 0, count);
+
+            var storage = game.getBoard().getStorage();
+            int previous = 0;
+
+            for (int i = 0; i < count; i++) {
+                int index = sortedChanges[i];
+
+                Protocol.putVarint(output, index - previous);
+                output.put(Protocol.encodeCell(storage, index));
+                previous = index;
+            }
+        }
+    }
+
+    public static void run(final String[] args, final PrintStream out) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+
+        for (var arg : args) {
+            if (arg.startsWith(PORT_OPTION)) {
+                port = Integer.parseInt(arg.substring(PORT_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException(String.format("unknown option %s", arg));
+            }
+        }
+
+        try (var server = start(new InetSocketAddress(port))) {
+            out.printf("listening on %s%n", server.getAddress());
+            server.awaitTermination();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+// Plays one game's moves, in order, on a worker thread of its own, so board
+// generation and long reveal cascades never block the thread handling input.
+// Every move's outcome is queued as a Batch for the UI to apply at its own
+// pace. Closing the session interrupts the move in flight and drops
+// everything still queued.
+final class GameSession implements AutoCloseable {
+    private final Game game;
+    private final ExecutorService worker;
+    private final Queue<Batch> batches;
+    private final AtomicInteger pendingMoves;
+    private volatile boolean closed;
+
+    GameSession(final Game game) {
+        this.game = game;
+        this.worker = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("minesweeper-moves").factory());
+        this.batches = new ConcurrentLinkedQueue<>();
+        this.pendingMoves = new AtomicInteger();
+    }
+
+    void reveal(final int index) {
+        submit(game::reveal, index);
+    }
+
+    void flag(final int index) {
+        submit(game::flag, index);
+    }
+
+    void chord(final int index) {
+        submit(game::chord, index);
+    }
+
+    // The returned future completes once the move's batch is queued; after
+    // close() it is already done and the move never runs. A move that close()
+    // interrupts completes exceptionally with its cascade's
+    // CancellationException, as its board is being discarded.
+    Future<?> submit(final IntFunction<ChangeSet> move, final int index) {
+        if (closed) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        pendingMoves.incrementAndGet();
+
+        try {
+            return worker.submit(() -> play(move, index));
+        } catch (RejectedExecutionException exception) {
+            // Closed in the meantime.
+            pendingMoves.decrementAndGet();
+
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void play(final IntFunction<ChangeSet> move, final int index) {
+        try {
+            var changes = move.apply(index);
+
+            if (!closed) {
+                batches.add(new Batch(changes, game));
+            }
+        } finally {
+            pendingMoves.decrementAndGet();
+        }
+    }
+
+    Batch poll() {
+        return closed ? null : batches.poll();
+    }
+
+    // True once every submitted move has finished and its batch was taken.
+    boolean isIdle() {
+        return pendingMoves.get() == 0 && batches.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        // Moves still waiting in the queue never run, so they are no longer pending either.
+        pendingMoves.addAndGet(-worker.shutdownNow().size());
+        batches.clear();
+    }
+
+    // The cells one move changed and their encoded states, with the game's
+    // counters, all taken on the worker right after the move, so applying a
+    // batch never reads the board the worker may already be changing. Only
+    // repaints of unchanged cells go to the storage; see BoardView.attach.
+    static final class Batch {
+        private final int[] cells;
+        private final byte[] states;
+        private final BoardStorage storage;
+        private final boolean overflowed;
+        private final GameState state;
+        private final int remainingFlags;
+        private final int mineCount;
+        private final int explodedIndex;
+
+        private Batch(final ChangeSet changes, final Game game) {
+            this.overflowed = changes.isOverflowed();
+            this.cells = overflowed ? new int[0] : changes.toArray();
+            this.storage = game.getBoard().getStorage();
+            this.states = new byte[cells.length];
+
+            for (int position = 0; position < cells.length; position++) {
+                states[position] = Protocol.encodeCell(storage, cells[position]);
+            }
+            this.state = game.getState();
+            this.remainingFlags = game.getRemainingFlags();
+            this.mineCount = game.getMineCount();
+            this.explodedIndex = game.getExplodedIndex();
+        }
+
+        int size() {
+            return cells.length;
+        }
+
+        int getCell(final int position) {
+            return cells[position];
+        }
+
+        // The cell's state as encoded by Protocol.encodeCell.
+        byte getState(final int position) {
+            return states[position];
+        }
+
+        // Handed over through the session's queue, so it is safely published to the UI thread.
+        BoardStorage getStorage() {
+            return storage;
+        }
+
+        // The cells are incomplete; the whole board has to be redrawn.
+        boolean isOverflowed() {
+            return overflowed;
+        }
+
+        GameState getState() {
+            return state;
+        }
+
+        int getRemainingFlags() {
+            return remainingFlags;
+        }
+
+        int getMineCount() {
+            return mineCount;
+        }
+
+        int getExplodedIndex() {
+            return explodedIndex;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+
+// What a new game looks like: its dimensions and either an exact mine count
+// or a mine density in percent.
+public final class GameSettings {
+    private static final int NO_MINE_COUNT = -1;
+    // The start cell and its neighbours never hold a mine.
+    private static final int SAFE_CELLS = 9;
+
+    private final int rows;
+    private final int columns;
+    private final int mineCount;
+    private final double mineProbability;
+
+    private GameSettings(final int rows, final int columns, final int mineCount, final double mineProbability) {
+        long cells = (long) rows * columns;
+
+        if (rows < 1 || columns < 1 || cells > BoardBackend.MAXIMUM_CELLS) {
+            throw new IllegalArgumentException(String.format(
+                    "a %d x %d board must have between 1 and %d cells",
+                    rows,
+                    columns,
+                    BoardBackend.MAXIMUM_CELLS
+                )
+            );
+        }
+
+        if (mineCount != NO_MINE_COUNT && (mineCount < 0 || mineCount > Math.max(cells - SAFE_CELLS, 0))) {
+            throw new IllegalArgumentException(String.format("%d mines do not fit on a board of %d cells", mineCount, cells));
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.mineCount = mineCount;
+        this.mineProbability = mineProbability;
+    }
+
+    public static GameSettings of(final Difficulty difficulty) {
+        return withDensity(difficulty.getBoardSize(), difficulty.getBoardSize(), difficulty.getMineProbability());
+    }
+
+    public static GameSettings withMineCount(final int rows, final int columns, final int mineCount) {
+        return new GameSettings(rows, columns, mineCount, Double.NaN);
+    }
+
+    public static GameSettings withDensity(final int rows, final int columns, final double mineProbability) {
+        // Fails early on a density outside 0-100 rather than when the first cell is revealed.
+        MinePlacement.probability(mineProbability);
+
+        return new GameSettings(rows, columns, NO_MINE_COUNT, mineProbability);
+    }
+
+    public MinePlacement createPlacement() {
+        return mineCount == NO_MINE_COUNT ? MinePlacement.probability(mineProbability) : MinePlacement.exact(mineCount);
+    }
+
+    public long getExpectedMines() {
+        return mineCount == NO_MINE_COUNT ? (long) Math.ceil(getCellCount() * mineProbability / 100.0) : mineCount;
+    }
+
+    // Throws IllegalArgumentException when the board would not fit into the
+    // heap. reclaimableBytes is what the board being replaced still holds.
+    public BoardBackend selectBackend(final long reclaimableBytes) {
+        return BoardBackend.select(rows, columns, getExpectedMines(), BoardBackend.getAvailableHeap() + reclaimableBytes);
+    }
+
+    public Board createBoard(final long reclaimableBytes) {
+        return new Board(rows, columns, createPlacement(), selectBackend(reclaimableBytes), new SplittableRandom());
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getCellCount() {
+        return (long) rows * columns;
+    }
+}
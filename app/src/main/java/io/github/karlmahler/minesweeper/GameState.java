@@ -0,0 +1,12 @@
+package io.github.karlmahler.minesweeper;
+
+public enum GameState {
+    READY,
+    PLAYING,
+    WON,
+    LOST;
+
+    public boolean isOver() {
+        return this == WON || this == LOST;
+    }
+}
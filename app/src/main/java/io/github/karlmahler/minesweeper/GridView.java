@@ -0,0 +1,48 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+final class GridView extends AbstractList<List<Cell>> implements RandomAccess {
+    private final BoardStorage storage;
+
+    GridView(final BoardStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public List<Cell> get(final int row) {
+        Objects.checkIndex(row, size());
+
+        return new RowView(storage, row);
+    }
+
+    @Override
+    public int size() {
+        return storage.getRows();
+    }
+
+    private static final class RowView extends AbstractList<Cell> implements RandomAccess {
+        private final BoardStorage storage;
+        private final int offset;
+
+        private RowView(final BoardStorage storage, final int row) {
+            this.storage = storage;
+            this.offset = storage.indexOf(row, 0);
+        }
+
+        @Override
+        public Cell get(final int column) {
+            Objects.checkIndex(column, size());
+
+            return new Cell(storage, offset + column);
+        }
+
+        @Override
+        public int size() {
+            return storage.getColumns();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+// An unbounded board split into CHUNK_SIZE x CHUNK_SIZE chunks. Mines are a
+// pure function of the seed and the chunk coordinates, so a chunk nobody has
+// touched needs no memory at all; touched chunks are kept in an LRU cache and
+// only their cell statuses are spilled to disk when the budget is exceeded.
+public final class InfiniteBoard implements Closeable {
+    public static final int CHUNK_SIZE = 64;
+
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int CHUNK_BYTES = CHUNK_CELLS + CHUNK_SIZE * Long.BYTES;
+    private static final int STATUS_BITS = 2;
+    private static final int MINE_LAYOUT_CACHE_SIZE = 256;
+    private static final int MAXIMUM_CASCADE_CELLS = 1 << 20;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final double mineProbability;
+    private final int startRow;
+    private final int startColumn;
+    private final Path spillDirectory;
+    private final Map<Long, PackedBoardStorage> chunks;
+    private final Map<Long, long[]> mineLayouts;
+    private final Set<Long> spilledChunks;
+    // Created on the first spill, so boards sharing a spill directory never share files.
+    private Path chunkDirectory;
+    private long[] stack;
+    private int stackSize;
+
+    public InfiniteBoard(
+        final long seed,
+        final double mineProbability,
+        final int startRow,
+        final int startColumn,
+        final long memoryBudget,
+        final Path spillDirectory
+    ) {
+        int maximumChunks = (int) Math.max(1L, Math.min(memoryBudget / CHUNK_BYTES, Integer.MAX_VALUE));
+
+        this.seed = seed;
+        this.mineProbability = mineProbability / 100.0;
+        this.startRow = startRow;
+        this.startColumn = startColumn;
+        this.spillDirectory = spillDirectory;
+        this.chunks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, PackedBoardStorage> eldest) {
+                if (size() <= maximumChunks) {
+                    return false;
+                }
+
+                spill(eldest.getKey(), eldest.getValue());
+
+                return true;
+            }
+        };
+        this.mineLayouts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, long[]> eldest) {
+                return size() > MINE_LAYOUT_CACHE_SIZE;
+            }
+        };
+        this.spilledChunks = new HashSet<>();
+        this.stack = new long[CHUNK_CELLS];
+    }
+
+    public boolean hasMine(final int row, final int column) {
+        long[] layout = getMineLayout(chunkKey(row, column));
+
+        return (layout[Math.floorMod(row, CHUNK_SIZE)] >>> Math.floorMod(column, CHUNK_SIZE) & 1L) != 0;
+    }
+
+    public int getAdjacentMines(final int row, final int column) {
+        int adjacentMines = 0;
+
+        for (int neighbourRow = row - 1; neighbourRow <= row + 1; neighbourRow++) {
+            for (int neighbourColumn = column - 1; neighbourColumn <= column + 1; neighbourColumn++) {
+                if ((neighbourRow != row || neighbourColumn != column) && hasMine(neighbourRow, neighbourColumn)) {
+                    adjacentMines++;
+                }
+            }
+        }
+
+        return adjacentMines;
+    }
+
+    public byte getStatus(final int row, final int column) {
+        long key = chunkKey(row, column);
+        var chunk = chunks.get(key);
+
+        if (chunk == null && !spilledChunks.contains(key)) {
+            return BoardStorage.HIDDEN;
+        }
+
+        return getChunk(key).getStatus(localIndex(row, column));
+    }
+
+    public boolean mark(final int row, final int column) {
+        return changeStatus(row, column, BoardStorage.HIDDEN, BoardStorage.MARKED);
+    }
+
+    public boolean unmark(final int row, final int column) {
+        return changeStatus(row, column, BoardStorage.MARKED, BoardStorage.HIDDEN);
+    }
+
+    private boolean changeStatus(final int row, final int column, final byte from, final byte to) {
+        var chunk = getChunk(chunkKey(row, column));
+        int index = localIndex(row, column);
+
+        if (chunk.getStatus(index) != from) {
+            return false;
+        }
+
+        chunk.setStatus(index, to);
+
+        return true;
+    }
+
+    // Reveals a hidden cell and cascades through empty cells across chunk
+    // borders, reporting each revealed cell as packCell(row, column). A single
+    // cascade stops after MAXIMUM_CASCADE_CELLS so that sparse regions cannot
+    // run forever; the empty cells left on its edge can be clicked to continue.
+    public boolean reveal(final int row, final int column, final LongConsumer revealedCells) {
+        if (getStatus(row, column) != BoardStorage.HIDDEN) {
+            return false;
+        }
+
+        boolean mine = hasMine(row, column);
+
+        // Mines and numbered cells are revealed alone; only empty cells cascade.
+        if (!revealCell(row, column, revealedCells)) {
+            return mine;
+        }
+
+        int revealed = 1;
+
+        this.stackSize = 0;
+        push(packCell(row, column));
+
+        while (stackSize > 0 && revealed < MAXIMUM_CASCADE_CELLS) {
+            long cell = stack[--stackSize];
+            int currentRow = unpackRow(cell);
+            int currentColumn = unpackColumn(cell);
+
+            for (int neighbourRow = currentRow - 1; neighbourRow <= currentRow + 1; neighbourRow++) {
+                for (int neighbourColumn = currentColumn - 1; neighbourColumn <= currentColumn + 1; neighbourColumn++) {
+                    if (getStatus(neighbourRow, neighbourColumn) == BoardStorage.REVEALED) {
+                        continue;
+                    }
+
+                    if (revealCell(neighbourRow, neighbourColumn, revealedCells)) {
+                        revealed++;
+                        push(packCell(neighbourRow, neighbourColumn));
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // Reveals one cell and returns whether it is empty, so the cascade continues from it.
+    private boolean revealCell(final int row, final int column, final LongConsumer revealedCells) {
+        if (hasMine(row, column)) {
+            if (getStatus(row, column) == BoardStorage.HIDDEN) {
+                getChunk(chunkKey(row, column)).setStatus(localIndex(row, column), BoardStorage.REVEALED);
+                revealedCells.accept(packCell(row, column));
+            }
+
+            return false;
+        }
+
+        var chunk = getChunk(chunkKey(row, column));
+        int index = localIndex(row, column);
+
+        chunk.setStatus(index, BoardStorage.REVEALED);
+        revealedCells.accept(packCell(row, column));
+
+        return chunk.getAdjacentMines(index) == 0;
+    }
+
+    private void push(final long cell) {
+        if (stackSize == stack.length) {
+            this.stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+
+        stack[stackSize++] = cell;
+    }
+
+    public int getResidentChunks() {
+        return chunks.size();
+    }
+
+    private PackedBoardStorage getChunk(final long key) {
+        var chunk = chunks.get(key);
+
+        if (chunk == null) {
+            chunk = createChunk(key);
+            chunks.put(key, chunk);
+        }
+
+        return chunk;
+    }
+
+    private PackedBoardStorage createChunk(final long key) {
+        var chunk = new PackedBoardStorage(CHUNK_SIZE, CHUNK_SIZE);
+        int firstRow = unpackRow(key) * CHUNK_SIZE;
+        int firstColumn = unpackColumn(key) * CHUNK_SIZE;
+
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            for (int column = 0; column < CHUNK_SIZE; column++) {
+                int index = row * CHUNK_SIZE + column;
+
+                chunk.setMine(index, hasMine(firstRow + row, firstColumn + column));
+                chunk.setAdjacentMines(index, getAdjacentMines(firstRow + row, firstColumn + column));
+            }
+        }
+
+        if (spilledChunks.remove(key)) {
+            restore(key, chunk);
+        }
+
+        return chunk;
+    }
+
+    private long[] getMineLayout(final long key) {
+        var layout = mineLayouts.get(key);
+
+        if (layout == null) {
+            layout = createMineLayout(key);
+            mineLayouts.put(key, layout);
+        }
+
+        return layout;
+    }
+
+    private long[] createMineLayout(final long key) {
+        var random = new SplittableRandom(seed ^ (key * GOLDEN_GAMMA));
+        var layout = new long[CHUNK_SIZE];
+        int firstRow = unpackRow(key) * CHUNK_SIZE;
+        int firstColumn = unpackColumn(key) * CHUNK_SIZE;
+
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            for (int column = 0; column < CHUNK_SIZE; column++) {
+                boolean mine = random.nextDouble() < mineProbability;
+
+                if (mine && !MinePlacement.isNearStartCell(firstRow + row, startRow, firstColumn + column, startColumn)) {
+                    layout[row] |= 1L << column;
+                }
+            }
+        }
+
+        return layout;
+    }
+
+    private void spill(final long key, final PackedBoardStorage chunk) {
+        var statuses = new byte[CHUNK_CELLS * STATUS_BITS / Byte.SIZE];
+
+        for (int index = 0; index < CHUNK_CELLS; index++) {
+            int bit = index * STATUS_BITS;
+
+            statuses[bit / Byte.SIZE] |= (byte) (chunk.getStatus(index) << (bit % Byte.SIZE));
+        }
+
+        try {
+            if (chunkDirectory == null) {
+                this.chunkDirectory = Files.createTempDirectory(spillDirectory, "board-");
+            }
+
+            Files.write(getSpillFile(key), statuses);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        spilledChunks.add(key);
+    }
+
+    private void restore(final long key, final PackedBoardStorage chunk) {
+        var file = getSpillFile(key);
+
+        try {
+            byte[] statuses = Files.readAllBytes(file);
+
+            for (int index = 0; index < CHUNK_CELLS; index++) {
+                int bit = index * STATUS_BITS;
+
+                chunk.setStatus(index, (byte) (statuses[bit / Byte.SIZE] >>> (bit % Byte.SIZE) & 0x03));
+            }
+
+            Files.delete(file);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private Path getSpillFile(final long key) {
+        return chunkDirectory.resolve(String.format("%d_%d.chunk", unpackRow(key), unpackColumn(key)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (long key : spilledChunks) {
+            Files.deleteIfExists(getSpillFile(key));
+        }
+
+        spilledChunks.clear();
+        chunks.clear();
+
+        if (chunkDirectory != null) {
+            Files.deleteIfExists(chunkDirectory);
+            this.chunkDirectory = null;
+        }
+    }
+
+    private static long chunkKey(final int row, final int column) {
+        return packCell(Math.floorDiv(row, CHUNK_SIZE), Math.floorDiv(column, CHUNK_SIZE));
+    }
+
+    private static int localIndex(final int row, final int column) {
+        return Math.floorMod(row, CHUNK_SIZE) * CHUNK_SIZE + Math.floorMod(column, CHUNK_SIZE);
+    }
+
+    public static long packCell(final int row, final int column) {
+        return (long) row << Integer.SIZE | (column & 0xFFFFFFFFL);
+    }
+
+    public static int unpackRow(final long cell) {
+        return (int) (cell >> Integer.SIZE);
+    }
+
+    public static int unpackColumn(final long cell) {
+        return (int) cell;
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Power-of-two nanosecond buckets: recording is a couple of atomic adds and
+// percentiles are reported as the upper bound of the bucket they fall in.
+final class LatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final String name;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maximumNanos;
+
+    LatencyHistogram(final String name) {
+        this.name = name;
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.totalNanos = new AtomicLong();
+        this.maximumNanos = new AtomicLong();
+    }
+
+    void record(final long nanos) {
+        long value = Math.max(nanos, 0L);
+
+        buckets.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        totalNanos.addAndGet(value);
+        maximumNanos.accumulateAndGet(value, Math::max);
+    }
+
+    private static int bucketOf(final long nanos) {
+        return nanos == 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos) - 1;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    long getMaximumNanos() {
+        return maximumNanos.get();
+    }
+
+    double getMeanNanos() {
+        long samples = count.get();
+
+        return samples == 0 ? 0.0 : (double) totalNanos.get() / samples;
+    }
+
+    long getPercentileNanos(final double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException(String.format("invalid percentile %f", percentile));
+        }
+
+        long samples = count.get();
+        long rank = (long) Math.ceil(samples * percentile / 100.0);
+        long seen = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets.get(bucket);
+
+            if (seen >= rank && seen > 0) {
+                return Math.min((1L << bucket << 1) - 1, maximumNanos.get());
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%-18s count=%-8d mean=%10.3f ms  p50<=%10.3f ms  p99<=%10.3f ms  max=%10.3f ms",
+            name,
+            getCount(),
+            getMeanNanos() / 1e6,
+            getPercentileNanos(50.0) / 1e6,
+            getPercentileNanos(99.0) / 1e6,
+            getMaximumNanos() / 1e6
+        );
+    }
+}
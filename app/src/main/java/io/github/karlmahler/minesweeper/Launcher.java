@@ -1,97 +1,45 @@
 package io.github.karlmahler.minesweeper;
 
-import java.util.Collections;
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ButtonBar;
-import javafx.scene.layout.StackPane;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.HBox;
 import javafx.scene.input.MouseButton;
-import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
-import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.event.EventHandler;
-import javafx.event.ActionEvent;
 
 public final class Launcher extends Application {
-    private static final int BUTTON_PADDING = 2;
-    private static final int BOARD_SIZE_EASY =  8;
-    private static final int BOARD_SIZE_MEDIUM = 12;
-    private static final int BOARD_SIZE_HARD = 18;
-    private static final double BUTTON_SIZE = 31.0;
-    private static final double MINE_PROBABILITY_EASY = 15.0;
-    private static final double MINE_PROBABILITY_MEDIUM = 18.0;
-    private static final double MINE_PROBABILITY_HARD = 22.0;
+    private static final int MAXIMUM_BUTTON_BOARD_SIZE = 64;
     private static final Difficulty DEFAULT_DIFFICULTY = Difficulty.EASY;
     private static final String WINDOW_TITLE = "Minesweeper";
-    private static final String MINE_SYMBOL = "💣";
-    private static final String EMPTY_AND_HIDDEN_CELL_SYMBOL = "";
+    private static final String PERCENT_SUFFIX = "%";
+    // Caps the view updates applied in one frame, so a huge cascade streams in instead of freezing the window.
+    private static final int CELLS_PER_FRAME = 2_048;
 
+    private Stage stage;
     private Board board;
-    private List<List<Cell>> grid;
-    private GridPane gridPane;
-    private ScrollPane scrollPane;
+    private BoardView boardView;
+    private ButtonBoardView buttonBoardView;
+    private CanvasBoardView canvasBoardView;
+    private VBox verticalBox;
     private Label flagsLabel;
-    private int boardSize;
-    private double mineProbability;
-    private long numberOfMines;
-    private long numberOfFlags;
-    private long numberOfMarkedCells;
-    private long numberOfRevealedCells;
-    private long numberOfNonMineCells;
-    private boolean gameStarted;
-
-    private void initialize(final Difficulty difficulty) {
-        setDifficulty(difficulty);
-
-        this.gameStarted = false;
-        this.board = new Board(boardSize, mineProbability);
-        this.grid = board.getGrid();
-        this.gridPane = createGridPane();
-        this.scrollPane = new ScrollPane(gridPane);
-        this.numberOfMines = 0;
-        this.numberOfFlags = numberOfMines;
-        this.numberOfMarkedCells = 0L;
-        this.numberOfRevealedCells = 0L;
-        this.numberOfNonMineCells = boardSize * boardSize - numberOfMines;
-        this.flagsLabel = new Label(String.format("Flags: %d / %d", numberOfFlags, numberOfFlags));
-    }
-
-    private void initialize() {
-        initialize(DEFAULT_DIFFICULTY);
-    }
-
-    private void setDifficulty(final Difficulty difficulty) {
-        switch (difficulty) {
-            case EASY -> {
-                this.boardSize = BOARD_SIZE_EASY;
-                this.mineProbability = MINE_PROBABILITY_EASY;
-            }
-            case MEDIUM -> {
-                this.boardSize = BOARD_SIZE_MEDIUM;
-                this.mineProbability = MINE_PROBABILITY_MEDIUM;
-            } 
-            case HARD -> {
-                this.boardSize = BOARD_SIZE_HARD;
-                this.mineProbability = MINE_PROBABILITY_HARD;
-            } 
-        }
-    }
+    private GameSettings settings;
+    private GameSession session;
+    private GameSession.Batch batch;
+    private int renderedCells;
+    private AnimationTimer renderTimer;
 
     @Override
     public void start(final Stage stage) {
@@ -99,340 +47,311 @@ public final class Launcher extends Application {
     }
 
     public void start(final Stage stage, final Difficulty difficulty) {
-        initialize(difficulty);
+        this.stage = stage;
+        this.settings = GameSettings.of(difficulty);
+        this.flagsLabel = new Label();
+        this.renderTimer = new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                renderPendingBatches();
+            }
+        };
 
         var restartButton = new Button("Restart");
 
         restartButton.setOnAction(event -> {
-            start(stage, difficulty);
+            restart(settings);
         });
 
         stage.setTitle(WINDOW_TITLE);
-        scrollPane.setPadding(new Insets(5));
 
         var menu = new MenuButton("Change difficulty");
 
         var easyDifficultyOption = new MenuItem("Easy");
         easyDifficultyOption.setOnAction(event -> {
-            start(stage, Difficulty.EASY);
+            restart(GameSettings.of(Difficulty.EASY));
         });
 
         var mediumDifficultyOption = new MenuItem("Medium");
         mediumDifficultyOption.setOnAction(event -> {
-            start(stage, Difficulty.MEDIUM);
+            restart(GameSettings.of(Difficulty.MEDIUM));
         });
 
         var hardDifficultyOption = new MenuItem("Hard");
         hardDifficultyOption.setOnAction(event -> {
-            start(stage, Difficulty.HARD);
+            restart(GameSettings.of(Difficulty.HARD));
         });
 
-        menu.getItems().addAll(easyDifficultyOption, mediumDifficultyOption, hardDifficultyOption);
+        var customDifficultyOption = new MenuItem("Custom...");
+        customDifficultyOption.setOnAction(event -> {
+            showCustomGameDialog();
+        });
+
+        menu.getItems().addAll(easyDifficultyOption, mediumDifficultyOption, hardDifficultyOption, customDifficultyOption);
 
         var horizontalBox = new HBox(restartButton, menu);
         horizontalBox.setAlignment(Pos.BOTTOM_CENTER);
 
-        var verticalBox = new VBox(flagsLabel, scrollPane, horizontalBox);
+        this.verticalBox = new VBox(flagsLabel, horizontalBox);
         verticalBox.setAlignment(Pos.BOTTOM_CENTER);
 
         stage.setScene(new Scene(verticalBox));
         stage.setResizable(false);
         stage.show();
-    }
-
-    private void fillGridPane() {
-        this.grid = board.getGrid();
-        List<Node> buttons = gridPane.getChildren();
 
-        for (int row = 0; row < boardSize; row++) {
-            for (int column = 0; column < boardSize; column++) {
-                int buttonIndex = boardSize * row + column;
-                var button = (Button) buttons.get(buttonIndex);
-                var cell = grid.get(row).get(column);
-
-                button.setOnMouseClicked(onMouseClicked(button, cell, row, column));
-            }
-        }
+        // The window appears with its controls first; the board is attached on the next pulse.
+        Platform.runLater(() -> {
+            restart(settings);
+            onFirstFrame();
+        });
     }
 
-    private GridPane createGridPane() {
-        var pane = new GridPane();
-
-        pane.setPadding(new Insets(BUTTON_PADDING));
-        setGridPaneGaps(pane);
-
-        for (int row = 0; row < boardSize; row++) {
-            for (int column = 0; column < boardSize; column++) {
-                var button = new Button(EMPTY_AND_HIDDEN_CELL_SYMBOL);
-
-                button.setPrefSize(BUTTON_SIZE, BUTTON_SIZE);
-                button.setOnAction(onFirstClick(button, row, column));
+    private void onFirstFrame() {
+        new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                stop();
 
-                pane.add(button, column, row);
-            }
-        }
-
-        return pane;
-    }
-
-    private EventHandler<ActionEvent> onFirstClick(final Button button, final int row, final int column) {
-        return event -> {
-            if (gameStarted) {
-                return;
+                if (Startup.isProbe()) {
+                    Startup.reportFirstFrame(System.out);
+                    Platform.exit();
+                }
             }
-
-            this.gameStarted = true;
-
-            board.buildGrid(row, column);
-            fillGridPane();
-
-            this.numberOfMines = countMines();
-            this.numberOfFlags = numberOfMines;
-            this.numberOfNonMineCells = boardSize * boardSize - numberOfMines;
-            flagsLabel.setText(String.format("Flags: %d / %d", numberOfFlags, numberOfFlags));
-        };
+        }.start();
     }
 
-    private EventHandler<MouseEvent> onMouseClicked(final Button button, final Cell cell, final int row, final int column) {
-        return event -> {
-            if (cell.isRevealed()) {
-                return;
-            }
+    private void showCustomGameDialog() {
+        var rowsField = new TextField(String.valueOf(settings.getRows()));
+        var columnsField = new TextField(String.valueOf(settings.getColumns()));
+        var minesField = new TextField(Difficulty.MEDIUM.getMineProbability() + PERCENT_SUFFIX);
+        var fields = new GridPane();
+
+        minesField.setPromptText("count, or density like 18%");
+        fields.setHgap(5);
+        fields.setVgap(5);
+        fields.add(new Label("Rows"), 0, 0);
+        fields.add(rowsField, 1, 0);
+        fields.add(new Label("Columns"), 0, 1);
+        fields.add(columnsField, 1, 1);
+        fields.add(new Label("Mines"), 0, 2);
+        fields.add(minesField, 1, 2);
+
+        var dialog = new Dialog<ButtonType>();
+
+        dialog.setTitle("Custom game");
+        dialog.getDialogPane().setContent(fields);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        if (dialog.showAndWait().filter(ButtonType.OK::equals).isEmpty()) {
+            return;
+        }
 
-            var buttonType = event.getButton();
+        try {
+            restart(parseSettings(rowsField.getText(), columnsField.getText(), minesField.getText()));
+        } catch (IllegalArgumentException exception) {
+            var alert = new Alert(Alert.AlertType.ERROR);
 
-            switch (buttonType) {
-                case MouseButton.PRIMARY -> handlePrimaryClick(button, cell, row, column);
-                case MouseButton.SECONDARY -> handleSecondaryClick(button, cell);
-            }
-        };
+            alert.setTitle("Custom game");
+            alert.setContentText(exception.getMessage());
+            alert.showAndWait();
+        }
     }
 
-    private void handlePrimaryClick(final Button button, final Cell cell, final int row, final int column) {
-        if (cell.isMarked()) {
-            return;
-        }
+    // Parses and sizes the game up front, so a board that cannot fit is rejected here rather than on the first click.
+    private GameSettings parseSettings(final String rowsText, final String columnsText, final String minesText) {
+        int rows = Integer.parseInt(rowsText.strip());
+        int columns = Integer.parseInt(columnsText.strip());
+        var mines = minesText.strip();
+        GameSettings settings;
 
-        revealCell(button, cell);
+        if (mines.endsWith(PERCENT_SUFFIX)) {
+            double density = Double.parseDouble(mines.substring(0, mines.length() - PERCENT_SUFFIX.length()).strip());
 
-        if (cell.hasMine()) {
-            button.setStyle("-fx-color: red;");
-            gameOver();
+            settings = GameSettings.withDensity(rows, columns, density);
         } else {
-            button.setStyle("-fx-color: blue;");
-
-            if (cell.getAdjacentMines() == 0) {
-                revealAdjacentCells(cell, row, column);
-            }
-
-            if (numberOfRevealedCells == numberOfNonMineCells) {
-                win();
-            }
+            settings = GameSettings.withMineCount(rows, columns, Integer.parseInt(mines));
         }
-    }
 
-    private void revealCell(final Button button, final Cell cell) {
-        cell.setRevealed();
-        numberOfRevealedCells++;
+        settings.selectBackend(getReclaimableBytes());
 
-        String content = getCellContent(cell);
-        button.setText(content);
+        return settings;
     }
 
-    public void gameOver() {
-        gridPane.setDisable(true);
+    // Starts a new game in the existing scene: only the board and game are
+    // new, the cell views are reset in place and reused across difficulties.
+    private void restart(final GameSettings settings) {
+        var rebuildEvent = new SceneRebuildEvent();
+        long start = Metrics.startTimer();
 
-        List<Node> buttons = gridPane.getChildren();
+        rebuildEvent.begin();
 
-        for (int row = 0; row < boardSize; row++) {
-            for (int column = 0; column < boardSize; column++) {
-                var cell = grid.get(row).get(column);
+        boolean resized = board == null
+            || board.getRows() != settings.getRows()
+            || board.getColumns() != settings.getColumns();
 
-                if (!cell.hasMine()) {
-                    continue;
-                }
-
-                var buttonIndex = boardSize * row + column;
-                var button = (Button) buttons.get(buttonIndex); 
-
-                revealCell(button, cell);
-            }
+        if (session != null) {
+            session.close();
         }
-    }
-
-    private void win() {
-        gridPane.setDisable(true);
-
-        List<Node> buttons = gridPane.getChildren();
 
-        for (int row = 0; row < boardSize; row++) {
-            for (int column = 0; column < boardSize; column++) {
-                var cell = grid.get(row).get(column);
+        this.settings = settings;
+        // The outgoing board is still referenced here and by the views, but its
+        // memory is free again by the time the new board generates on the first click.
+        this.board = settings.createBoard(getReclaimableBytes());
+        var game = new Game(board);
+        this.session = new GameSession(game);
+        this.batch = null;
 
-                var buttonIndex = boardSize * row + column;
-                var button = (Button) buttons.get(buttonIndex); 
+        var view = getBoardView();
 
-                revealCell(button, cell);
+        if (view != boardView) {
+            if (boardView != null) {
+                verticalBox.getChildren().remove(boardView.getNode());
             }
+
+            verticalBox.getChildren().add(1, view.getNode());
+            this.boardView = view;
         }
 
-        var alert = new Alert(Alert.AlertType.NONE);
+        updateFlagsLabel(game.getRemainingFlags(), game.getMineCount());
 
-        alert.setTitle("Congratulations!");
-        alert.setContentText("You won!");
+        if (resized) {
+            stage.sizeToScene();
+        }
 
-        alert
-            .getDialogPane()
-            .getButtonTypes()
-            .add(
-                new ButtonType("Enjoy!", ButtonBar.ButtonData.CANCEL_CLOSE)
-            );
-        alert.showAndWait();
-    }
+        Metrics.stopTimer(Metrics.SCENE_REBUILD, start);
+        rebuildEvent.end();
 
-    private void handleSecondaryClick(final Button button, final Cell cell) {
-        if (!cell.isMarked()) {
-            markCell(button, cell);
-        } else {
-            unmarkCell(button, cell);
+        if (rebuildEvent.shouldCommit()) {
+            rebuildEvent.rows = board.getRows();
+            rebuildEvent.columns = board.getColumns();
+            rebuildEvent.backend = board.getBackend().name();
+            rebuildEvent.view = boardView.getClass().getSimpleName();
+            rebuildEvent.commit();
         }
     }
 
-    private void markCell(final Button button, final Cell cell) {
-        if (numberOfFlags == 0) {
-            return;
-        }
-
-        cell.setMarked();
-
-        numberOfFlags--;
-        updateFlagsLabel();
-
-        button.setStyle("-fx-color: green;");
+    private long getReclaimableBytes() {
+        return board == null ? 0 : board.getEstimatedBytes();
     }
 
-    private void unmarkCell(final Button button, final Cell cell) {
-        cell.unsetMarked();
+    private BoardView getBoardView() {
+        if (board.getRows() > MAXIMUM_BUTTON_BOARD_SIZE || board.getColumns() > MAXIMUM_BUTTON_BOARD_SIZE) {
+            if (canvasBoardView == null) {
+                this.canvasBoardView = new CanvasBoardView(board);
+                canvasBoardView.setOnCellClicked(this::onCellClicked);
+            } else {
+                canvasBoardView.reset(board);
+            }
 
-        numberOfFlags++;
-        updateFlagsLabel();
+            return canvasBoardView;
+        }
 
-        button.setStyle(null);
-    }
+        if (buttonBoardView == null) {
+            this.buttonBoardView = new ButtonBoardView(board);
+            buttonBoardView.setOnCellClicked(this::onCellClicked);
+        } else {
+            buttonBoardView.reset(board);
+        }
 
-    private void setGridPaneGaps(final GridPane pane) {
-        pane.setHgap(BUTTON_PADDING);
-        pane.setVgap(BUTTON_PADDING);
+        return buttonBoardView;
     }
 
-    private String getCellContent(final Cell cell) {
-        if (cell.hasMine()) {
-            return MINE_SYMBOL;
+    // Moves are played by the session's worker; their results come back through renderPendingBatches.
+    private void onCellClicked(final int index, final MouseButton buttonType) {
+        switch (buttonType) {
+            case MouseButton.PRIMARY -> session.reveal(index);
+            case MouseButton.SECONDARY -> session.flag(index);
+            case MouseButton.MIDDLE -> session.chord(index);
         }
 
-        var mines = cell.getAdjacentMines();
-
-        return switch (mines) {
-            case 0 -> EMPTY_AND_HIDDEN_CELL_SYMBOL;
-            default -> String.valueOf(mines);
-        };
-    }
-
-    private long countMines() {
-        return grid
-            .stream()
-            .flatMap(Collection::stream)
-            .filter(Cell::hasMine)
-            .count();
+        renderTimer.start();
     }
 
-    private void updateFlagsLabel() {
-        flagsLabel.setText(String.format("Flags: %d / %d", numberOfFlags, numberOfMines));
-    }
+    // Runs once per frame while moves are in flight and applies at most
+    // CELLS_PER_FRAME of their changed cells, resuming a large batch on the
+    // next frame where it left off.
+    private void renderPendingBatches() {
+        int budget = CELLS_PER_FRAME;
 
-    private void revealAdjacentCells(final Cell cell, final int row, final int column) {
-        List<Cell> adjacentCells = getAdjacentCells(row, column);
-        List<List<Integer>> adjacentIndices = getAdjacentCellsIndices(row, column);
-        List<Button> adjacentButtons = getAdjacentButtons(row, column);
+        while (budget > 0) {
+            if (batch == null) {
+                this.batch = session.poll();
+                this.renderedCells = 0;
 
-        for (int i = 0; i < adjacentCells.size(); i++) {
-            var currentCell = adjacentCells.get(i);
+                if (batch == null) {
+                    break;
+                }
 
-            if (currentCell.isRevealed() || currentCell.hasMine()) {
-                continue;
+                boardView.attach(batch.getStorage());
             }
 
-            int mines = currentCell.getAdjacentMines(); 
+            if (batch.isOverflowed()) {
+                boardView.refresh();
+                budget = 0;
+            } else {
+                int end = Math.min(batch.size(), renderedCells + budget);
 
-            var currentButton = adjacentButtons.get(i);
+                for (int position = renderedCells; position < end; position++) {
+                    boardView.update(batch.getCell(position), batch.getState(position));
+                }
 
-            revealCell(currentButton, currentCell);
-            currentButton.setStyle("-fx-color: blue;");
+                budget -= end - renderedCells;
+                this.renderedCells = end;
 
-            if (currentCell.isMarked()) {
-                unmarkCell(currentButton, currentCell);
-                revealCell(currentButton, currentCell);
-                currentButton.setStyle("-fx-color: blue;");
+                if (renderedCells < batch.size()) {
+                    break;
+                }
             }
 
-            if (mines == 0) {
-                revealAdjacentCells(currentCell, adjacentIndices.get(i).get(0), adjacentIndices.get(i).get(1));
-            }
+            finishBatch(batch);
+            this.batch = null;
         }
-    }
 
-    private List<Button> getAdjacentButtons(final int row, final int column) {
-        List<Node> buttons = gridPane.getChildren();
-        List<Button> adjacentButtons = new ArrayList<>();
-        List<List<Integer>> adjacentIndices = getAdjacentCellsIndices(row, column);
-
-        for (List<Integer> pair : adjacentIndices) {
-            int buttonIndex = boardSize * pair.get(0) + pair.get(1);
-            var button = (Button) buttons.get(buttonIndex);
-
-            adjacentButtons.add(button);
+        if (batch == null && session.isIdle()) {
+            renderTimer.stop();
         }
-
-        return adjacentButtons;
     }
 
-    private List<Cell> getAdjacentCells(final int row, final int column) {
-        List<Cell> adjacentCells = new ArrayList<>();
-        List<List<Integer>> adjacentIndices = getAdjacentCellsIndices(row, column);
+    private void finishBatch(final GameSession.Batch batch) {
+        updateFlagsLabel(batch.getRemainingFlags(), batch.getMineCount());
 
-        for (List<Integer> pair : adjacentIndices) {
-            adjacentCells.add(grid.get(pair.get(0)).get(pair.get(1)));
+        switch (batch.getState()) {
+            case LOST -> {
+                boardView.showExplosion(batch.getExplodedIndex());
+                boardView.setDisabled(true);
+            }
+            case WON -> {
+                boardView.setDisabled(true);
+                // Dialogs cannot block inside an animation pulse.
+                Platform.runLater(this::showWinAlert);
+            }
         }
-
-        return adjacentCells;
     }
 
-    private List<List<Integer>> getAdjacentCellsIndices(final int row, final int column) {
-        List<List<Integer>> adjacentCellsIndices = new ArrayList<>();
-
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                if (!isValidIndex(row + i) || !isValidIndex(column + j)) {
-                    continue;
-                }
+    private void showWinAlert() {
+        var alert = new Alert(Alert.AlertType.NONE);
 
-                if (i != 0 || j != 0) {
-                    adjacentCellsIndices.add(List.of(row + i, column + j));
-                }
-            }
-        }
+        alert.setTitle("Congratulations!");
+        alert.setContentText("You won!");
 
-        return adjacentCellsIndices;
+        alert
+            .getDialogPane()
+            .getButtonTypes()
+            .add(
+                new ButtonType("Enjoy!", ButtonBar.ButtonData.CANCEL_CLOSE)
+            );
+        alert.showAndWait();
     }
 
-    private boolean isValidIndex(final int index) {
-        return index >= 0 && index < boardSize;
+    private void updateFlagsLabel(final int remainingFlags, final int mineCount) {
+        flagsLabel.setText(String.format("Flags: %d / %d", remainingFlags, mineCount));
     }
 
-    private static enum Difficulty {
-        EASY,
-        MEDIUM,
-        HARD;
+    @Override
+    public void stop() {
+        if (session != null) {
+            session.close();
+        }
     }
 
     public static void main(final String[] args) {
@@ -0,0 +1,335 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Drives a GameServer over loopback: each connection keeps up to
+// pipelineDepth frames of batchSize moves in flight, mostly revealing cells
+// it has not seen revealed yet and toggling the odd flag, and starts a new
+// game as soon as a reply reports the current one as over.
+public final class LoadGenerator {
+    private static final String HOST_OPTION = "--host=";
+    private static final String PORT_OPTION = "--port=";
+    private static final String CONNECTIONS_OPTION = "--connections=";
+    private static final String MOVES_OPTION = "--moves=";
+    private static final String BATCH_OPTION = "--batch=";
+    private static final String PIPELINE_OPTION = "--pipeline=";
+    private static final String DIFFICULTY_OPTION = "--difficulty=";
+    private static final String DEFAULT_HOST = "localhost";
+    private static final int DEFAULT_PORT = 7878;
+    private static final int DEFAULT_CONNECTIONS = 8;
+    private static final int DEFAULT_MOVES = 1_000_000;
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final int DEFAULT_PIPELINE_DEPTH = 8;
+    private static final int FLAG_ONE_IN = 8;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int movesPerConnection;
+    private final int batchSize;
+    private final int pipelineDepth;
+    private final Difficulty difficulty;
+
+    public LoadGenerator(
+        final InetSocketAddress address,
+        final int connections,
+        final int movesPerConnection,
+        final int batchSize,
+        final int pipelineDepth,
+        final Difficulty difficulty
+    ) {
+        if (connections < 1 || movesPerConnection < 0 || batchSize < 1 || pipelineDepth < 1) {
+            throw new IllegalArgumentException("connections, batch size and pipeline depth must be positive");
+        }
+
+        this.address = address;
+        this.connections = connections;
+        this.movesPerConnection = movesPerConnection;
+        this.batchSize = batchSize;
+        this.pipelineDepth = pipelineDepth;
+        this.difficulty = difficulty;
+    }
+
+    public Result run() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<Future<Result>> results = new ArrayList<>();
+        long moves = 0;
+        long liveMoves = 0;
+        long games = 0;
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int connection = 0; connection < connections; connection++) {
+                long seed = connection;
+
+                results.add(executor.submit(() -> new Connection(seed).play()));
+            }
+
+            for (var result : results) {
+                moves += result.get().getMoves();
+                liveMoves += result.get().getLiveMoves();
+                games += result.get().getGames();
+            }
+        } catch (ExecutionException exception) {
+            throw new IOException("a load generator connection failed", exception.getCause());
+        }
+
+        return new Result(moves, liveMoves, games, System.nanoTime() - start);
+    }
+
+    private final class Connection {
+        private final SplittableRandom random;
+        private final BitSet revealed;
+        private final int size;
+        private ByteBuffer output;
+        private ByteBuffer input;
+        private boolean gameOver;
+        private boolean firstMove;
+        private long games;
+        private long startedGames;
+        private long results;
+        private long liveMoves;
+
+        private Connection(final long seed) {
+            this.random = new SplittableRandom(seed);
+            this.revealed = new BitSet();
+            this.size = difficulty.getBoardSize();
+            this.output = ByteBuffer.allocate(BUFFER_SIZE);
+            this.input = ByteBuffer.allocate(BUFFER_SIZE);
+            this.gameOver = true;
+        }
+
+        private Result play() throws IOException {
+            long start = System.nanoTime();
+            long sent = 0;
+
+            try (var channel = SocketChannel.open(address)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+                while (results < movesPerConnection) {
+                    // Counted in moves: the server may split one request's results across several replies.
+                    while (sent - results < (long) pipelineDepth * batchSize && sent < movesPerConnection) {
+                        int batch = (int) Math.min(batchSize, movesPerConnection - sent);
+
+                        writeFrame(batch);
+                        sent += batch;
+                    }
+
+                    output.flip();
+
+                    while (output.hasRemaining()) {
+                        channel.write(output);
+                    }
+
+                    output.clear();
+
+                    readFrames(channel);
+                }
+            }
+
+            return new Result(results, liveMoves, games, System.nanoTime() - start);
+        }
+
+        private void writeFrame(final int moves) {
+            this.output = Protocol.ensureRemaining(output, Protocol.FRAME_HEADER_SIZE + moves * 32);
+
+            int start = output.position();
+
+            output.putInt(0);
+
+            for (int i = 0; i < moves; i++) {
+                if (gameOver) {
+                    writeNewGame();
+                } else {
+                    writeMove();
+                }
+            }
+
+            output.putInt(start, output.position() - start - Protocol.FRAME_HEADER_SIZE);
+        }
+
+        // Starting a game counts as one of the moves; the server answers it like any other command.
+        private void writeNewGame() {
+            output.put(Protocol.NEW_GAME);
+            Protocol.putVarint(output, size);
+            Protocol.putVarint(output, (int) Math.round(difficulty.getMineProbability() * 100));
+            output.putLong(random.nextLong());
+            revealed.clear();
+            this.gameOver = false;
+            this.firstMove = true;
+            games++;
+        }
+
+        private void writeMove() {
+            int cells = size * size;
+            int index = revealed.nextClearBit(random.nextInt(cells));
+
+            if (index >= cells) {
+                index = revealed.nextClearBit(0);
+            }
+
+            if (index >= cells) {
+                index = random.nextInt(cells);
+            }
+
+            boolean flag = !firstMove && random.nextInt(FLAG_ONE_IN) == 0;
+
+            output.put(flag ? Protocol.FLAG : Protocol.REVEAL);
+            Protocol.putVarint(output, index);
+            revealed.set(index);
+            this.firstMove = false;
+        }
+
+        private void readFrames(final SocketChannel channel) throws IOException {
+            if (channel.read(input) < 0) {
+                throw new IOException("the server closed the connection");
+            }
+
+            input.flip();
+
+            while (input.remaining() >= Protocol.FRAME_HEADER_SIZE) {
+                int length = input.getInt(input.position());
+
+                if (length < 0 || length > Protocol.MAXIMUM_REPLY_SIZE) {
+                    throw new IOException(String.format("invalid frame length %d", length));
+                }
+
+                if (input.remaining() < Protocol.FRAME_HEADER_SIZE + length) {
+                    if (input.capacity() < Protocol.FRAME_HEADER_SIZE + length) {
+                        this.input = ByteBuffer.allocate(Protocol.FRAME_HEADER_SIZE + length).put(input).flip();
+                    }
+
+                    break;
+                }
+
+                input.position(input.position() + Protocol.FRAME_HEADER_SIZE);
+                readResults(input.slice(input.position(), length));
+                input.position(input.position() + length);
+            }
+
+            input.compact();
+        }
+
+        // Since every game opens with a reveal, only NEW_GAME results are READY,
+        // which tells apart an outcome of the current game from a stale one
+        // of a game that was replaced while its moves were still in flight.
+        private void readResults(final ByteBuffer frame) throws IOException {
+            while (frame.hasRemaining()) {
+                var state = GameState.values()[frame.get()];
+                int count = Protocol.getVarint(frame);
+
+                for (int i = 0; i < count; i++) {
+                    Protocol.getVarint(frame);
+                    frame.get();
+                }
+
+                if (state == GameState.READY) {
+                    startedGames++;
+                } else if (state.isOver() && startedGames == games) {
+                    this.gameOver = true;
+                }
+
+                if (!state.isOver() || count > 0) {
+                    liveMoves++;
+                }
+
+                results++;
+            }
+        }
+    }
+
+    // Live moves exclude the ones that reached a game already over, which the server answers without changes.
+    public static final class Result {
+        private final long moves;
+        private final long liveMoves;
+        private final long games;
+        private final long elapsedNanos;
+
+        private Result(final long moves, final long liveMoves, final long games, final long elapsedNanos) {
+            this.moves = moves;
+            this.liveMoves = liveMoves;
+            this.games = games;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public long getLiveMoves() {
+            return liveMoves;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getMovesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : moves * 1e9 / elapsedNanos;
+        }
+
+        public double getLiveMovesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : liveMoves * 1e9 / elapsedNanos;
+        }
+    }
+
+    public static void run(final String[] args, final PrintStream out) throws IOException, InterruptedException {
+        String host = DEFAULT_HOST;
+        int port = DEFAULT_PORT;
+        int connections = DEFAULT_CONNECTIONS;
+        int moves = DEFAULT_MOVES;
+        int batchSize = DEFAULT_BATCH_SIZE;
+        int pipelineDepth = DEFAULT_PIPELINE_DEPTH;
+        var difficulty = Difficulty.HARD;
+
+        for (var arg : args) {
+            if (arg.startsWith(HOST_OPTION)) {
+                host = arg.substring(HOST_OPTION.length());
+            } else if (arg.startsWith(PORT_OPTION)) {
+                port = Integer.parseInt(arg.substring(PORT_OPTION.length()));
+            } else if (arg.startsWith(CONNECTIONS_OPTION)) {
+                connections = Integer.parseInt(arg.substring(CONNECTIONS_OPTION.length()));
+            } else if (arg.startsWith(MOVES_OPTION)) {
+                moves = Integer.parseInt(arg.substring(MOVES_OPTION.length()));
+            } else if (arg.startsWith(BATCH_OPTION)) {
+                batchSize = Integer.parseInt(arg.substring(BATCH_OPTION.length()));
+            } else if (arg.startsWith(PIPELINE_OPTION)) {
+                pipelineDepth = Integer.parseInt(arg.substring(PIPELINE_OPTION.length()));
+            } else if (arg.startsWith(DIFFICULTY_OPTION)) {
+                difficulty = Difficulty.valueOf(arg.substring(DIFFICULTY_OPTION.length()).toUpperCase(Locale.ROOT));
+            } else {
+                throw new IllegalArgumentException(String.format("unknown option %s", arg));
+            }
+        }
+
+        var generator = new LoadGenerator(new InetSocketAddress(host, port), connections, moves, batchSize, pipelineDepth, difficulty);
+        var result = generator.run();
+
+        out.printf(
+            Locale.ROOT,
+            "%d moves (%d live) in %d games over %d connections: %.0f moves/s, %.0f live moves/s%n",
+            result.getMoves(),
+            result.getLiveMoves(),
+            result.getGames(),
+            connections,
+            result.getMovesPerSecond(),
+            result.getLiveMovesPerSecond()
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.PrintStream;
+import java.util.List;
+
+// In-process latency metrics, switched on with -Dminesweeper.metrics=true or
+// the --metrics option. The flag is a static final so that disabled timers
+// fold away in compiled code.
+final class Metrics {
+    static final String ENABLED_PROPERTY = "minesweeper.metrics";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    static final LatencyHistogram BOARD_GENERATION = new LatencyHistogram("board-generation");
+    static final LatencyHistogram REVEAL_CASCADE = new LatencyHistogram("reveal-cascade");
+    static final LatencyHistogram SCENE_REBUILD = new LatencyHistogram("scene-rebuild");
+
+    private static final List<LatencyHistogram> HISTOGRAMS = List.of(BOARD_GENERATION, REVEAL_CASCADE, SCENE_REBUILD);
+
+    private Metrics() {
+    }
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static long startTimer() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    static void stopTimer(final LatencyHistogram histogram, final long start) {
+        if (ENABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    static void dump(final PrintStream out) {
+        for (var histogram : HISTOGRAMS) {
+            out.println(histogram);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.random.RandomGenerator;
+
+public interface MinePlacement {
+    // Places mines everywhere except around the start cell and returns how many were placed.
+    int place(BoardStorage storage, int startRow, int startColumn, RandomGenerator random);
+
+    static MinePlacement probability(final double mineProbability) {
+        return new ProbabilityPlacement(mineProbability);
+    }
+
+    static MinePlacement exact(final int mineCount) {
+        return new ExactPlacement(mineCount);
+    }
+
+    static MinePlacement fixed(final BoardStorage layout) {
+        return new FixedPlacement(layout);
+    }
+
+    static MinePlacement noGuess(final MinePlacement placement) {
+        return noGuess(placement, Runtime.getRuntime().availableProcessors());
+    }
+
+    static MinePlacement noGuess(final MinePlacement placement, final int parallelism) {
+        return new NoGuessPlacement(placement, parallelism);
+    }
+
+    static boolean isNearStartCell(final int row, final int startRow, final int column, final int startColumn) {
+        return Math.abs(row - startRow) <= 1 && Math.abs(column - startColumn) <= 1;
+    }
+}
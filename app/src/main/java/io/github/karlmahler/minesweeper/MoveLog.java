@@ -0,0 +1,69 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.Arrays;
+
+public final class MoveLog {
+    public static final byte REVEAL = 0;
+    public static final byte FLAG = 1;
+    public static final byte CHORD = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] types;
+    private int[] indices;
+    private int size;
+
+    public MoveLog() {
+        this.types = new byte[INITIAL_CAPACITY];
+        this.indices = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    public void add(final byte type, final int index) {
+        if (size == indices.length) {
+            this.types = Arrays.copyOf(types, size * 2);
+            this.indices = Arrays.copyOf(indices, size * 2);
+        }
+
+        types[size] = type;
+        indices[size] = index;
+        size++;
+    }
+
+    public byte getType(final int position) {
+        checkPosition(position);
+
+        return types[position];
+    }
+
+    public int getIndex(final int position) {
+        checkPosition(position);
+
+        return indices[position];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public void replay(final Game game) {
+        for (int position = 0; position < size; position++) {
+            switch (types[position]) {
+                case REVEAL -> game.reveal(indices[position]);
+                case FLAG -> game.flag(indices[position]);
+                case CHORD -> game.chord(indices[position]);
+                default -> throw new IllegalStateException(String.format("unknown move type %d", types[position]));
+            }
+        }
+    }
+
+    private void checkPosition(final int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(position);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.karlmahler.minesweeper;
+
+// Neighbour lookups for a rows x columns grid without per-probe bounds
+// checks. A neighbour is the cell's index plus one entry of a flat offset
+// table; the cell's row and column are compared against the border once per
+// lookup, which leaves a bitmask of the offsets that stay inside the grid.
+final class Neighbourhood {
+    static final int MAXIMUM_NEIGHBOURS = 8;
+
+    private static final int[] ROW_OFFSETS = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] COLUMN_OFFSETS = { -1, 0, 1, -1, 1, -1, 0, 1 };
+
+    // The offsets that leave the grid across each border, as bits of the table above.
+    private static final int ALL_OFFSETS = 0xFF;
+    private static final int TOP_OFFSETS = 0x07;
+    private static final int BOTTOM_OFFSETS = 0xE0;
+    private static final int LEFT_OFFSETS = 0x29;
+    private static final int RIGHT_OFFSETS = 0x94;
+
+    private final int rows;
+    private final int columns;
+    private final int[] offsets;
+
+    Neighbourhood(final int rows, final int columns) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException(String.format("a %d x %d grid has no cells", rows, columns));
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.offsets = new int[MAXIMUM_NEIGHBOURS];
+
+        for (int i = 0; i < MAXIMUM_NEIGHBOURS; i++) {
+            offsets[i] = ROW_OFFSETS[i] * columns + COLUMN_OFFSETS[i];
+        }
+    }
+
+    Neighbourhood(final BoardStorage storage) {
+        this(storage.getRows(), storage.getColumns());
+    }
+
+    private int validOffsets(final int index) {
+        int row = index / columns;
+        int column = index - row * columns;
+        int valid = ALL_OFFSETS;
+
+        if (row == 0) {
+            valid &= ~TOP_OFFSETS;
+        }
+
+        if (row == rows - 1) {
+            valid &= ~BOTTOM_OFFSETS;
+        }
+
+        if (column == 0) {
+            valid &= ~LEFT_OFFSETS;
+        }
+
+        if (column == columns - 1) {
+            valid &= ~RIGHT_OFFSETS;
+        }
+
+        return valid;
+    }
+
+    // Writes the neighbours of index into cells, which needs room for
+    // MAXIMUM_NEIGHBOURS entries, and returns how many there are.
+    int collect(final int index, final int[] cells) {
+        int valid = validOffsets(index);
+        int count = 0;
+
+        for (int i = 0; i < MAXIMUM_NEIGHBOURS; i++) {
+            if ((valid & 1 << i) != 0) {
+                cells[count++] = index + offsets[i];
+            }
+        }
+
+        return count;
+    }
+
+    int countWithStatus(final BoardStorage storage, final int index, final byte status) {
+        int valid = validOffsets(index);
+        int count = 0;
+
+        for (int i = 0; i < MAXIMUM_NEIGHBOURS; i++) {
+            if ((valid & 1 << i) != 0 && storage.getStatus(index + offsets[i]) == status) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    int countMines(final BoardStorage storage, final int index) {
+        int valid = validOffsets(index);
+        int count = 0;
+
+        for (int i = 0; i < MAXIMUM_NEIGHBOURS; i++) {
+            if ((valid & 1 << i) != 0 && storage.hasMine(index + offsets[i])) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+final class NoGuessPlacement implements MinePlacement {
+    private static final int MAXIMUM_REPAIRS = 64;
+    // Per worker; a density no layout can satisfy fails instead of spinning forever.
+    private static final int MAXIMUM_ATTEMPTS = 1_000;
+
+    private final MinePlacement placement;
+    private final int parallelism;
+
+    NoGuessPlacement(final MinePlacement placement, final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+
+        this.placement = placement;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public int place(final BoardStorage storage, final int startRow, final int startColumn, final RandomGenerator random) {
+        int rows = storage.getRows();
+        int columns = storage.getColumns();
+        var layout = parallelism == 1
+            ? search(rows, columns, startRow, startColumn, random)
+            : searchInParallel(rows, columns, startRow, startColumn, random);
+
+        return MinePlacement.fixed(layout).place(storage, startRow, startColumn, random);
+    }
+
+    // Every worker searches with its own split generator; the first solvable
+    // layout wins and invokeAny interrupts the rest.
+    private BoardStorage searchInParallel(
+        final int rows,
+        final int columns,
+        final int startRow,
+        final int startColumn,
+        final RandomGenerator random
+    ) {
+        SplittableGenerator root = random instanceof SplittableGenerator splittable
+            ? splittable
+            : new SplittableRandom(random.nextLong());
+        List<Callable<BoardStorage>> attempts = new ArrayList<>();
+
+        for (int i = 0; i < parallelism; i++) {
+            var attemptRandom = root.split();
+
+            attempts.add(() -> search(rows, columns, startRow, startColumn, attemptRandom));
+        }
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executor.invokeAny(attempts);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("no-guess generation was interrupted", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("no-guess generation failed", exception.getCause());
+        }
+    }
+
+    private BoardStorage search(
+        final int rows,
+        final int columns,
+        final int startRow,
+        final int startColumn,
+        final RandomGenerator random
+    ) {
+        // Scratch space for repair, shared by every attempt of this worker.
+        int[] frontierMines = new int[rows * columns];
+        int[] freeCells = new int[rows * columns];
+
+        for (int attempt = 0; attempt < MAXIMUM_ATTEMPTS; attempt++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("no-guess generation was cancelled");
+            }
+
+            var candidate = new PackedBoardStorage(rows, columns);
+
+            placement.place(candidate, startRow, startColumn, random);
+
+            for (int repair = 0; repair <= MAXIMUM_REPAIRS && !Thread.currentThread().isInterrupted(); repair++) {
+                var board = new Board(rows, columns, MinePlacement.fixed(candidate), BoardBackend.PACKED, random);
+                var solver = new Solver(new Game(board));
+
+                if (solver.solveWithoutGuessing(startRow, startColumn)) {
+                    return candidate;
+                }
+
+                boolean repaired = repair(
+                        candidate,
+                        board.getStorage(),
+                        board.getNeighbourhood(),
+                        startRow,
+                        startColumn,
+                        random,
+                        frontierMines,
+                        freeCells
+                    );
+
+                if (!repaired) {
+                    break;
+                }
+            }
+        }
+
+        throw new IllegalStateException(String.format(
+                "no layout solvable without guessing was found in %d attempts",
+                MAXIMUM_ATTEMPTS
+            )
+        );
+    }
+
+    // Moves one mine from the stuck frontier to a cell far from anything
+    // revealed, which changes the local numbers without touching the rest.
+    // The two scratch arrays need room for every cell.
+    private boolean repair(
+        final BoardStorage candidate,
+        final BoardStorage stuck,
+        final Neighbourhood neighbourhood,
+        final int startRow,
+        final int startColumn,
+        final RandomGenerator random,
+        final int[] frontierMines,
+        final int[] freeCells
+    ) {
+        int columns = candidate.getColumns();
+        int cells = candidate.getCellCount();
+        int frontierMineCount = 0;
+        int freeCellCount = 0;
+
+        for (int index = 0; index < cells; index++) {
+            if (stuck.getStatus(index) == BoardStorage.REVEALED) {
+                continue;
+            }
+
+            boolean frontier = neighbourhood.countWithStatus(stuck, index, BoardStorage.REVEALED) > 0;
+
+            if (frontier && candidate.hasMine(index)) {
+                frontierMines[frontierMineCount++] = index;
+            } else if (
+                !frontier &&
+                !candidate.hasMine(index) &&
+                !MinePlacement.isNearStartCell(index / columns, startRow, index % columns, startColumn)
+            ) {
+                freeCells[freeCellCount++] = index;
+            }
+        }
+
+        if (frontierMineCount == 0 || freeCellCount == 0) {
+            return false;
+        }
+
+        candidate.setMine(frontierMines[random.nextInt(frontierMineCount)], false);
+        candidate.setMine(freeCells[random.nextInt(freeCellCount)], true);
+
+        return true;
+    }
+}
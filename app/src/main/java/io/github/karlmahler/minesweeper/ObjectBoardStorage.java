@@ -0,0 +1,82 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.List;
+import java.util.ArrayList;
+
+public final class ObjectBoardStorage implements BoardStorage {
+    private final List<List<Square>> grid;
+    private final int rows;
+    private final int columns;
+
+    public ObjectBoardStorage(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.grid = createGrid();
+    }
+
+    private List<List<Square>> createGrid() {
+        List<List<Square>> grid = new ArrayList<>();
+
+        for (int row = 0; row < rows; row++) {
+            List<Square> rowSquares = new ArrayList<>();
+
+            for (int column = 0; column < columns; column++) {
+                rowSquares.add(new Square());
+            }
+
+            grid.add(rowSquares);
+        }
+
+        return grid;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasMine(final int index) {
+        return getSquare(index).mine;
+    }
+
+    @Override
+    public void setMine(final int index, final boolean mine) {
+        getSquare(index).mine = mine;
+    }
+
+    @Override
+    public int getAdjacentMines(final int index) {
+        return getSquare(index).adjacentMines;
+    }
+
+    @Override
+    public void setAdjacentMines(final int index, final int adjacentMines) {
+        getSquare(index).adjacentMines = adjacentMines;
+    }
+
+    @Override
+    public byte getStatus(final int index) {
+        return getSquare(index).status;
+    }
+
+    @Override
+    public void setStatus(final int index, final byte status) {
+        getSquare(index).status = status;
+    }
+
+    private Square getSquare(final int index) {
+        return grid.get(index / columns).get(index % columns);
+    }
+
+    private static final class Square {
+        private boolean mine;
+        private int adjacentMines;
+        private byte status = HIDDEN;
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// The packed one-byte-per-cell layout kept outside the heap, so the collector
+// never has to scan or move it. The segments belong to automatic arenas: a
+// board that is dropped on restart releases its memory like any other object.
+public final class OffHeapBoardStorage implements BoardStorage {
+    private static final int ADJACENT_MINES_MASK = 0x0F;
+    private static final int MINE_BIT = 0x10;
+    private static final int STATUS_SHIFT = 5;
+    private static final int STATUS_MASK = 0x03 << STATUS_SHIFT;
+
+    private final MemorySegment cells;
+    private final int rows;
+    private final int columns;
+
+    public OffHeapBoardStorage(final int rows, final int columns) {
+        this(rows, columns, Arena.ofAuto().allocate(calculateCellCount(rows, columns)));
+    }
+
+    private OffHeapBoardStorage(final int rows, final int columns, final MemorySegment cells) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = cells;
+    }
+
+    // Backs the cells with a temporary file mapped into memory, so a board
+    // larger than physical memory is paged in and out by the OS. The file is
+    // removed once the mapping is released.
+    public static OffHeapBoardStorage mapped(final int rows, final int columns, final Path directory) {
+        long cellCount = calculateCellCount(rows, columns);
+
+        try {
+            var file = Files.createTempFile(directory, "minesweeper-", ".board");
+
+            try (var channel = FileChannel.open(
+                    file,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE
+                )
+            ) {
+                // A fresh file reads back as zeros: every cell starts hidden, empty and without a mine.
+                var cells = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(cellCount, 1), Arena.ofAuto());
+
+                return new OffHeapBoardStorage(rows, columns, cells);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static int calculateCellCount(final int rows, final int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("board dimensions must not be negative");
+        }
+
+        long cells = (long) rows * columns;
+
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("a %d x %d board has too many cells to index", rows, columns));
+        }
+
+        return (int) cells;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    private byte get(final int index) {
+        return cells.get(ValueLayout.JAVA_BYTE, index);
+    }
+
+    private void set(final int index, final int value) {
+        cells.set(ValueLayout.JAVA_BYTE, index, (byte) value);
+    }
+
+    @Override
+    public boolean hasMine(final int index) {
+        return (get(index) & MINE_BIT) != 0;
+    }
+
+    @Override
+    public void setMine(final int index, final boolean mine) {
+        if (mine) {
+            set(index, get(index) | MINE_BIT);
+        } else {
+            set(index, get(index) & ~MINE_BIT);
+        }
+    }
+
+    @Override
+    public int getAdjacentMines(final int index) {
+        return get(index) & ADJACENT_MINES_MASK;
+    }
+
+    @Override
+    public void setAdjacentMines(final int index, final int adjacentMines) {
+        set(index, (get(index) & ~ADJACENT_MINES_MASK) | adjacentMines);
+    }
+
+    @Override
+    public byte getStatus(final int index) {
+        return (byte) ((get(index) & STATUS_MASK) >>> STATUS_SHIFT);
+    }
+
+    @Override
+    public void setStatus(final int index, final byte status) {
+        set(index, (get(index) & ~STATUS_MASK) | (status << STATUS_SHIFT));
+    }
+}
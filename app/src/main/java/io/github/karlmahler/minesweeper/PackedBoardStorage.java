@@ -0,0 +1,84 @@
+package io.github.karlmahler.minesweeper;
+
+public final class PackedBoardStorage implements BoardStorage {
+    private static final int ADJACENT_MINES_MASK = 0x0F;
+    private static final int MINE_BIT = 0x10;
+    private static final int STATUS_SHIFT = 5;
+    private static final int STATUS_MASK = 0x03 << STATUS_SHIFT;
+
+    private final byte[] cells;
+    private final int rows;
+    private final int columns;
+
+    public PackedBoardStorage(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new byte[calculateCellCount(rows, columns)];
+    }
+
+    private static int calculateCellCount(final int rows, final int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("board dimensions must not be negative");
+        }
+
+        try {
+            return Math.multiplyExact(rows, columns);
+        } catch (ArithmeticException exception) {
+            throw new IllegalArgumentException(String.format(
+                    "a %d x %d board does not fit into a single array",
+                    rows,
+                    columns
+                )
+            );
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    @Override
+    public boolean hasMine(final int index) {
+        return (cells[index] & MINE_BIT) != 0;
+    }
+
+    @Override
+    public void setMine(final int index, final boolean mine) {
+        if (mine) {
+            cells[index] |= MINE_BIT;
+        } else {
+            cells[index] &= ~MINE_BIT;
+        }
+    }
+
+    @Override
+    public int getAdjacentMines(final int index) {
+        return cells[index] & ADJACENT_MINES_MASK;
+    }
+
+    @Override
+    public void setAdjacentMines(final int index, final int adjacentMines) {
+        cells[index] = (byte) ((cells[index] & ~ADJACENT_MINES_MASK) | adjacentMines);
+    }
+
+    @Override
+    public byte getStatus(final int index) {
+        return (byte) ((cells[index] & STATUS_MASK) >>> STATUS_SHIFT);
+    }
+
+    @Override
+    public void setStatus(final int index, final byte status) {
+        cells[index] = (byte) ((cells[index] & ~STATUS_MASK) | (status << STATUS_SHIFT));
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.IntStream;
+
+final class ParallelGeneration {
+    // Fixed so that the split sequence, and therefore the board, only depends on the seed.
+    private static final int BAND_ROWS = 64;
+
+    private ParallelGeneration() {
+    }
+
+    static int generate(
+        final BoardStorage storage,
+        final MinePlacement placement,
+        final int startRow,
+        final int startColumn,
+        final RandomGenerator random
+    ) {
+        int rows = storage.getRows();
+        int bands = (rows + BAND_ROWS - 1) / BAND_ROWS;
+        long[] mines = new long[Math.multiplyExact(rows, AdjacencyCounter.wordsPerRow(storage.getColumns()))];
+        int mineCount;
+
+        if (placement instanceof ProbabilityPlacement probability) {
+            SplittableGenerator[] bandRandoms = splitPerBand(random, bands);
+
+            mineCount = IntStream
+                .range(0, bands)
+                .parallel()
+                .map(band -> {
+                    int fromRow = band * BAND_ROWS;
+                    int toRow = Math.min(fromRow + BAND_ROWS, rows);
+                    int placed = probability.placeRows(storage, fromRow, toRow, startRow, startColumn, bandRandoms[band]);
+
+                    AdjacencyCounter.packMines(storage, mines, fromRow, toRow);
+
+                    return placed;
+                })
+                .sum();
+        } else {
+            mineCount = placement.place(storage, startRow, startColumn, random);
+
+            forEachBand(bands, rows, (fromRow, toRow) -> AdjacencyCounter.packMines(storage, mines, fromRow, toRow));
+        }
+
+        forEachBand(bands, rows, (fromRow, toRow) -> AdjacencyCounter.countRows(storage, mines, fromRow, toRow));
+
+        return mineCount;
+    }
+
+    private static SplittableGenerator[] splitPerBand(final RandomGenerator random, final int bands) {
+        SplittableGenerator root;
+
+        if (random instanceof SplittableGenerator splittable) {
+            root = splittable;
+        } else {
+            root = new SplittableRandom(random.nextLong());
+        }
+
+        var bandRandoms = new SplittableGenerator[bands];
+
+        for (int band = 0; band < bands; band++) {
+            bandRandoms[band] = root.split();
+        }
+
+        return bandRandoms;
+    }
+
+    private static void forEachBand(final int bands, final int rows, final BandAction action) {
+        IntStream
+            .range(0, bands)
+            .parallel()
+            .forEach(band -> {
+                int fromRow = band * BAND_ROWS;
+
+                action.apply(fromRow, Math.min(fromRow + BAND_ROWS, rows));
+            });
+    }
+
+    @FunctionalInterface
+    private interface BandAction {
+        void apply(int fromRow, int toRow);
+    }
+}
@@ -0,0 +1,550 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ProbabilityAnalyzer {
+    private static final int NO_VARIABLE = -1;
+
+    private final BoardStorage storage;
+    private final int rows;
+    private final int columns;
+    private final Neighbourhood neighbourhood;
+    private final double[] logFactorials;
+
+    public ProbabilityAnalyzer(final BoardStorage storage) {
+        this.storage = storage;
+        this.rows = storage.getRows();
+        this.columns = storage.getColumns();
+        this.neighbourhood = new Neighbourhood(storage);
+        this.logFactorials = createLogFactorials(storage.getCellCount());
+    }
+
+    private static double[] createLogFactorials(final int size) {
+        var logFactorials = new double[size + 1];
+
+        for (int i = 1; i <= size; i++) {
+            logFactorials[i] = logFactorials[i - 1] + Math.log(i);
+        }
+
+        return logFactorials;
+    }
+
+    // Returns the chance of a mine under every cell given what the player can
+    // see; revealed cells are 0 and flags are trusted as mines.
+    public double[] analyze(final int mineCount) {
+        int cells = storage.getCellCount();
+        int[] variables = new int[cells];
+        List<int[]> constraintVariables = new ArrayList<>();
+        List<Integer> constraintValues = new ArrayList<>();
+        int flags = 0;
+        int variableCount = 0;
+        int[] hidden = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+        int[] neighbours = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+
+        Arrays.fill(variables, NO_VARIABLE);
+
+        for (int index = 0; index < cells; index++) {
+            byte status = storage.getStatus(index);
+
+            if (status == BoardStorage.MARKED) {
+                flags++;
+            }
+
+            if (status != BoardStorage.REVEALED || storage.hasMine(index)) {
+                continue;
+            }
+
+            int hiddenCount = 0;
+            int missingMines = storage.getAdjacentMines(index);
+            int neighbourCount = neighbourhood.collect(index, neighbours);
+
+            for (int i = 0; i < neighbourCount; i++) {
+                switch (storage.getStatus(neighbours[i])) {
+                    case BoardStorage.MARKED -> missingMines--;
+                    case BoardStorage.HIDDEN -> hidden[hiddenCount++] = neighbours[i];
+                }
+            }
+
+            if (missingMines < 0 || missingMines > hiddenCount) {
+                throw inconsistentState();
+            }
+
+            if (hiddenCount == 0) {
+                continue;
+            }
+
+            int[] constraint = new int[hiddenCount];
+
+            for (int i = 0; i < hiddenCount; i++) {
+                if (variables[hidden[i]] == NO_VARIABLE) {
+                    variables[hidden[i]] = variableCount++;
+                }
+
+                constraint[i] = variables[hidden[i]];
+            }
+
+            constraintVariables.add(constraint);
+            constraintValues.add(missingMines);
+        }
+
+        int[] cellOfVariable = new int[variableCount];
+        int interiorCells = 0;
+
+        for (int index = 0; index < cells; index++) {
+            if (variables[index] != NO_VARIABLE) {
+                cellOfVariable[variables[index]] = index;
+            } else if (storage.getStatus(index) == BoardStorage.HIDDEN) {
+                interiorCells++;
+            }
+        }
+
+        List<Component> components = createComponents(variableCount, cellOfVariable, constraintVariables, constraintValues);
+
+        for (var component : components) {
+            component.solve();
+        }
+
+        return combine(components, cellOfVariable, mineCount - flags, interiorCells);
+    }
+
+    private List<Component> createComponents(
+        final int variableCount,
+        final int[] cellOfVariable,
+        final List<int[]> constraintVariables,
+        final List<Integer> constraintValues
+    ) {
+        int[] parents = new int[variableCount];
+
+        for (int variable = 0; variable < variableCount; variable++) {
+            parents[variable] = variable;
+        }
+
+        for (int[] constraint : constraintVariables) {
+            for (int i = 1; i < constraint.length; i++) {
+                parents[find(parents, constraint[i])] = find(parents, constraint[0]);
+            }
+        }
+
+        Map<Integer, Component> byRoot = new HashMap<>();
+        List<Component> components = new ArrayList<>();
+
+        for (int variable = 0; variable < variableCount; variable++) {
+            int root = find(parents, variable);
+            var component = byRoot.get(root);
+
+            if (component == null) {
+                component = new Component();
+                byRoot.put(root, component);
+                components.add(component);
+            }
+
+            component.variables.add(variable);
+        }
+
+        for (int i = 0; i < constraintVariables.size(); i++) {
+            int[] constraint = constraintVariables.get(i);
+
+            byRoot.get(find(parents, constraint[0])).addConstraint(constraint, constraintValues.get(i));
+        }
+
+        int[] orderKeys = new int[variableCount];
+
+        for (int variable = 0; variable < variableCount; variable++) {
+            int cell = cellOfVariable[variable];
+
+            orderKeys[variable] = columns <= rows ? cell : (cell % columns) * rows + cell / columns;
+        }
+
+        for (var component : components) {
+            component.variables.sort((first, second) -> Integer.compare(orderKeys[first], orderKeys[second]));
+        }
+
+        return components;
+    }
+
+    private static int find(final int[] parents, final int variable) {
+        int root = variable;
+
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+
+        int current = variable;
+
+        while (parents[current] != root) {
+            int next = parents[current];
+
+            parents[current] = root;
+            current = next;
+        }
+
+        return root;
+    }
+
+    private double[] combine(
+        final List<Component> components,
+        final int[] cellOfVariable,
+        final int remainingMines,
+        final int interiorCells
+    ) {
+        int count = components.size();
+        double[][] prefixes = new double[count + 1][];
+        double[][] suffixes = new double[count + 1][];
+
+        prefixes[0] = new double[] { 1.0 };
+        suffixes[count] = new double[] { 1.0 };
+
+        for (int i = 0; i < count; i++) {
+            prefixes[i + 1] = convolve(prefixes[i], components.get(i).solutions);
+        }
+
+        for (int i = count - 1; i >= 0; i--) {
+            suffixes[i] = convolve(components.get(i).solutions, suffixes[i + 1]);
+        }
+
+        double[] interiorWeights = createInteriorWeights(remainingMines, interiorCells, prefixes[count].length);
+        double total = 0.0;
+        double interiorMines = 0.0;
+
+        for (int mines = 0; mines < prefixes[count].length; mines++) {
+            double weight = prefixes[count][mines] * interiorWeights[mines];
+
+            total += weight;
+
+            if (interiorCells > 0) {
+                interiorMines += weight * (remainingMines - mines) / interiorCells;
+            }
+        }
+
+        if (!(total > 0.0)) {
+            throw inconsistentState();
+        }
+
+        var probabilities = new double[storage.getCellCount()];
+        double interiorProbability = interiorMines / total;
+
+        for (int index = 0; index < probabilities.length; index++) {
+            probabilities[index] = switch (storage.getStatus(index)) {
+                case BoardStorage.MARKED -> 1.0;
+                case BoardStorage.HIDDEN -> interiorProbability;
+                default -> 0.0;
+            };
+        }
+
+        for (int i = 0; i < count; i++) {
+            var component = components.get(i);
+            double[] others = convolve(prefixes[i], suffixes[i + 1]);
+            double[] completions = new double[component.solutions.length];
+
+            for (int mines = 0; mines < completions.length; mines++) {
+                for (int otherMines = 0; otherMines < others.length; otherMines++) {
+                    completions[mines] += others[otherMines] * interiorWeights[mines + otherMines];
+                }
+            }
+
+            for (int position = 0; position < component.variables.size(); position++) {
+                double[] mineSolutions = component.mineSolutions[position];
+                double weight = 0.0;
+
+                for (int mines = 0; mines < mineSolutions.length; mines++) {
+                    weight += mineSolutions[mines] * completions[mines];
+                }
+
+                probabilities[cellOfVariable[component.variables.get(position)]] = weight / total;
+            }
+        }
+
+        return probabilities;
+    }
+
+    // Number of ways to hide the remaining mines among the unconstrained
+    // cells, scaled by the largest term so that large boards stay finite.
+    private double[] createInteriorWeights(final int remainingMines, final int interiorCells, final int frontierMines) {
+        var weights = new double[frontierMines];
+        double largest = Double.NEGATIVE_INFINITY;
+
+        for (int mines = 0; mines < frontierMines; mines++) {
+            int interiorMines = remainingMines - mines;
+
+            weights[mines] = interiorMines < 0 || interiorMines > interiorCells
+                ? Double.NEGATIVE_INFINITY
+                : logBinomial(interiorCells, interiorMines);
+            largest = Math.max(largest, weights[mines]);
+        }
+
+        for (int mines = 0; mines < frontierMines; mines++) {
+            weights[mines] = Math.exp(weights[mines] - largest);
+        }
+
+        return weights;
+    }
+
+    private double logBinomial(final int n, final int k) {
+        return logFactorials[n] - logFactorials[k] - logFactorials[n - k];
+    }
+
+    private static double[] convolve(final double[] first, final double[] second) {
+        var result = new double[first.length + second.length - 1];
+
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == 0.0) {
+                continue;
+            }
+
+            for (int j = 0; j < second.length; j++) {
+                result[i + j] += first[i] * second[j];
+            }
+        }
+
+        return result;
+    }
+
+    private static IllegalStateException inconsistentState() {
+        return new IllegalStateException("the revealed numbers and flags admit no mine layout");
+    }
+
+    // Enumerates one independent group of frontier cells. Cells are visited in
+    // board order so that only the numbers straddling the current position are
+    // live; assignments agreeing on those partial sums share one memoized tail.
+    private static final class Component {
+        private final List<Integer> variables = new ArrayList<>();
+        private final List<int[]> constraints = new ArrayList<>();
+        private final List<Integer> values = new ArrayList<>();
+        private int[][] active;
+        private int[][] starting;
+        private int[][] containing;
+        private int[][] remainingAfter;
+        private int[] constraintValues;
+        private int[] sums;
+        private List<Map<StateKey, double[]>> tails;
+        private double[] solutions;
+        private double[][] mineSolutions;
+
+        private void addConstraint(final int[] constraint, final int value) {
+            constraints.add(constraint);
+            values.add(value);
+        }
+
+        private void solve() {
+            int size = variables.size();
+            int constraintCount = constraints.size();
+            Map<Integer, Integer> positions = new HashMap<>();
+
+            for (int position = 0; position < size; position++) {
+                positions.put(variables.get(position), position);
+            }
+
+            int[] first = new int[constraintCount];
+            int[] last = new int[constraintCount];
+            List<List<Integer>> startingLists = createLists(size);
+            List<List<Integer>> containingLists = createLists(size);
+            List<List<Integer>> remainingLists = createLists(size);
+
+            this.constraintValues = new int[constraintCount];
+
+            for (int constraint = 0; constraint < constraintCount; constraint++) {
+                int[] constraintPositions = constraints.get(constraint).clone();
+
+                for (int i = 0; i < constraintPositions.length; i++) {
+                    constraintPositions[i] = positions.get(constraintPositions[i]);
+                }
+
+                Arrays.sort(constraintPositions);
+
+                first[constraint] = constraintPositions[0];
+                last[constraint] = constraintPositions[constraintPositions.length - 1];
+                constraintValues[constraint] = values.get(constraint);
+                startingLists.get(first[constraint]).add(constraint);
+
+                for (int i = 0; i < constraintPositions.length; i++) {
+                    containingLists.get(constraintPositions[i]).add(constraint);
+                    remainingLists.get(constraintPositions[i]).add(constraintPositions.length - i - 1);
+                }
+            }
+
+            this.starting = toArrays(startingLists);
+            this.containing = toArrays(containingLists);
+            this.remainingAfter = toArrays(remainingLists);
+            this.active = new int[size + 1][];
+
+            for (int boundary = 0; boundary <= size; boundary++) {
+                List<Integer> live = new ArrayList<>();
+
+                for (int constraint = 0; constraint < constraintCount; constraint++) {
+                    if (first[constraint] < boundary && last[constraint] >= boundary) {
+                        live.add(constraint);
+                    }
+                }
+
+                active[boundary] = live.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            this.sums = new int[constraintCount];
+            this.tails = new ArrayList<>();
+
+            for (int boundary = 0; boundary <= size; boundary++) {
+                tails.add(new HashMap<>());
+            }
+
+            this.solutions = tail(0, new byte[0]);
+            this.mineSolutions = new double[size][solutions.length];
+
+            accumulateMineSolutions();
+        }
+
+        private void accumulateMineSolutions() {
+            Map<StateKey, double[]> heads = new HashMap<>();
+
+            heads.put(new StateKey(new byte[0]), new double[] { 1.0 });
+
+            for (int position = 0; position < variables.size(); position++) {
+                Map<StateKey, double[]> nextHeads = new HashMap<>();
+
+                for (var entry : heads.entrySet()) {
+                    double[] head = entry.getValue();
+
+                    for (int mine = 0; mine <= 1; mine++) {
+                        byte[] next = transition(position, entry.getKey().sums, mine);
+
+                        if (next == null) {
+                            continue;
+                        }
+
+                        double[] tail = tail(position + 1, next);
+
+                        if (mine == 1) {
+                            for (int headMines = 0; headMines < head.length; headMines++) {
+                                for (int tailMines = 0; tailMines < tail.length; tailMines++) {
+                                    mineSolutions[position][headMines + 1 + tailMines] += head[headMines] * tail[tailMines];
+                                }
+                            }
+                        }
+
+                        int length = position + 2;
+                        var shifted = nextHeads.computeIfAbsent(new StateKey(next), key -> new double[length]);
+
+                        for (int headMines = 0; headMines < head.length; headMines++) {
+                            shifted[headMines + mine] += head[headMines];
+                        }
+                    }
+                }
+
+                heads = nextHeads;
+            }
+        }
+
+        private double[] tail(final int position, final byte[] state) {
+            int size = variables.size();
+
+            if (position == size) {
+                return new double[] { 1.0 };
+            }
+
+            var key = new StateKey(state);
+            var memo = tails.get(position);
+            double[] cached = memo.get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            var result = new double[size - position + 1];
+
+            for (int mine = 0; mine <= 1; mine++) {
+                byte[] next = transition(position, state, mine);
+
+                if (next == null) {
+                    continue;
+                }
+
+                double[] rest = tail(position + 1, next);
+
+                for (int mines = 0; mines < rest.length; mines++) {
+                    result[mines + mine] += rest[mines];
+                }
+            }
+
+            memo.put(key, result);
+
+            return result;
+        }
+
+        private byte[] transition(final int position, final byte[] state, final int mine) {
+            int[] live = active[position];
+
+            for (int i = 0; i < live.length; i++) {
+                sums[live[i]] = state[i];
+            }
+
+            for (int constraint : starting[position]) {
+                sums[constraint] = 0;
+            }
+
+            int[] touched = containing[position];
+
+            for (int i = 0; i < touched.length; i++) {
+                int constraint = touched[i];
+                int sum = sums[constraint] + mine;
+
+                if (sum > constraintValues[constraint] || sum + remainingAfter[position][i] < constraintValues[constraint]) {
+                    return null;
+                }
+
+                sums[constraint] = sum;
+            }
+
+            int[] nextLive = active[position + 1];
+            var next = new byte[nextLive.length];
+
+            for (int i = 0; i < nextLive.length; i++) {
+                next[i] = (byte) sums[nextLive[i]];
+            }
+
+            return next;
+        }
+
+        private static List<List<Integer>> createLists(final int size) {
+            List<List<Integer>> lists = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                lists.add(new ArrayList<>());
+            }
+
+            return lists;
+        }
+
+        private static int[][] toArrays(final List<List<Integer>> lists) {
+            var arrays = new int[lists.size()][];
+
+            for (int i = 0; i < arrays.length; i++) {
+                arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            return arrays;
+        }
+    }
+
+    private static final class StateKey {
+        private final byte[] sums;
+        private final int hash;
+
+        private StateKey(final byte[] sums) {
+            this.sums = sums;
+            this.hash = Arrays.hashCode(sums);
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return object instanceof StateKey other && Arrays.equals(sums, other.sums);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.random.RandomGenerator;
+
+final class ProbabilityPlacement implements MinePlacement {
+    private static final double MINIMUM_PROBABILITY = 0.0;
+    private static final double MAXIMUM_PROBABILITY = 100.0;
+
+    private final double mineProbability;
+
+    ProbabilityPlacement(final double mineProbability) {
+        validateMineProbability(mineProbability);
+
+        this.mineProbability = mineProbability / 100.0;
+    }
+
+    private void validateMineProbability(final double mineProbability) {
+        if (
+            !(mineProbability >= MINIMUM_PROBABILITY) ||
+            mineProbability > MAXIMUM_PROBABILITY
+        ) {
+            throw new IllegalArgumentException(String.format(
+                    "mine probability must be between %.0f and %.0f",
+                    MINIMUM_PROBABILITY,
+                    MAXIMUM_PROBABILITY
+                )
+            );
+        }
+    }
+
+    double getMineProbability() {
+        return mineProbability;
+    }
+
+    @Override
+    public int place(final BoardStorage storage, final int startRow, final int startColumn, final RandomGenerator random) {
+        return placeRows(storage, 0, storage.getRows(), startRow, startColumn, random);
+    }
+
+    int placeRows(
+        final BoardStorage storage,
+        final int fromRow,
+        final int toRow,
+        final int startRow,
+        final int startColumn,
+        final RandomGenerator random
+    ) {
+        int columns = storage.getColumns();
+        int mines = 0;
+
+        for (int row = fromRow; row < toRow; row++) {
+            int offset = row * columns;
+
+            for (int column = 0; column < columns; column++) {
+                if (MinePlacement.isNearStartCell(row, startRow, column, startColumn)) {
+                    continue;
+                }
+
+                if (random.nextDouble() < mineProbability) {
+                    storage.setMine(offset + column, true);
+                    mines++;
+                }
+            }
+        }
+
+        return mines;
+    }
+}
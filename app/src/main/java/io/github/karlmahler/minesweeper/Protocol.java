@@ -0,0 +1,119 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Wire format shared by GameServer and LoadGenerator. Both directions are a
+// stream of frames: a 4-byte big-endian payload length followed by the
+// payload. A request frame is a batch of commands, each an opcode byte and
+// its arguments; the server answers with one result per command, in order,
+// so clients can pipeline as many frames as they like. Results are packed
+// into reply frames of at most MAXIMUM_REPLY_SIZE bytes, so one request may
+// be answered by several frames, but a result never spans two.
+//
+//   NEW_GAME  varint size, varint mine probability in hundredths of a percent, 8-byte seed
+//   REVEAL, FLAG, CHORD  varint cell index
+//
+// A result is the game state ordinal, a varint change count and the changed
+// cells in ascending order, each as a varint gap from the previous index and
+// one cell byte (see encodeCell).
+final class Protocol {
+    static final byte NEW_GAME = 0;
+    static final byte REVEAL = 1;
+    static final byte FLAG = 2;
+    static final byte CHORD = 3;
+
+    static final int FRAME_HEADER_SIZE = Integer.BYTES;
+    static final int MAXIMUM_FRAME_SIZE = 1 << 20;
+    static final int MAXIMUM_BOARD_SIZE = 1024;
+    // Room for the result of any command, even one that changes every cell of the largest board.
+    static final int MAXIMUM_REPLY_SIZE = getMaximumResultSize(MAXIMUM_BOARD_SIZE * MAXIMUM_BOARD_SIZE);
+
+    private static final int MINE_BIT = 0x04;
+    private static final int ADJACENT_MINES_SHIFT = 3;
+    private static final int STATUS_MASK = 0x03;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_CONTINUATION = 0x80;
+    private static final int MAXIMUM_VARINT_SIZE = 5;
+    // Gaps between cells of the largest board fit three varint bytes; one more for the cell.
+    private static final int MAXIMUM_CHANGE_SIZE = 4;
+
+    private Protocol() {
+    }
+
+    // Mines and counts are only sent for revealed cells, so clients learn nothing they could not see.
+    static byte encodeCell(final BoardStorage storage, final int index) {
+        byte status = storage.getStatus(index);
+
+        if (status != BoardStorage.REVEALED) {
+            return status;
+        }
+
+        int mine = storage.hasMine(index) ? MINE_BIT : 0;
+
+        return (byte) (status | mine | storage.getAdjacentMines(index) << ADJACENT_MINES_SHIFT);
+    }
+
+    static int getMaximumResultSize(final int changes) {
+        return 1 + MAXIMUM_VARINT_SIZE + changes * MAXIMUM_CHANGE_SIZE;
+    }
+
+    static byte decodeStatus(final byte cell) {
+        return (byte) (cell & STATUS_MASK);
+    }
+
+    static boolean decodeMine(final byte cell) {
+        return (cell & MINE_BIT) != 0;
+    }
+
+    static int decodeAdjacentMines(final byte cell) {
+        return (cell & 0xFF) >>> ADJACENT_MINES_SHIFT;
+    }
+
+    static void putVarint(final ByteBuffer buffer, final int value) {
+        int remaining = value;
+
+        while ((remaining & ~0x7F) != 0) {
+            buffer.put((byte) (remaining & 0x7F | VARINT_CONTINUATION));
+            remaining >>>= VARINT_PAYLOAD_BITS;
+        }
+
+        buffer.put((byte) remaining);
+    }
+
+    static int getVarint(final ByteBuffer buffer) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < Integer.SIZE; shift += VARINT_PAYLOAD_BITS) {
+            requireRemaining(buffer, 1);
+
+            byte next = buffer.get();
+
+            value |= (next & 0x7F) << shift;
+
+            if ((next & VARINT_CONTINUATION) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("malformed varint");
+    }
+
+    // Reads past the end of a frame fail as protocol errors rather than BufferUnderflowException.
+    static void requireRemaining(final ByteBuffer buffer, final int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            throw new IOException(String.format("truncated frame: %d bytes expected, %d left", bytes, buffer.remaining()));
+        }
+    }
+
+    // Returns a buffer with room for at least the given number of bytes, keeping what was written so far.
+    static ByteBuffer ensureRemaining(final ByteBuffer buffer, final int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+
+        return ByteBuffer.allocate(capacity).put(buffer.flip());
+    }
+}
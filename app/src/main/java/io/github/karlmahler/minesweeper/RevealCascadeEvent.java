@@ -0,0 +1,17 @@
+package io.github.karlmahler.minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.github.karlmahler.minesweeper.RevealCascade")
+@Label("Reveal Cascade")
+@Category("Minesweeper")
+final class RevealCascadeEvent extends Event {
+    @Label("Start Index")
+    int index;
+
+    @Label("Cells Revealed")
+    int cellsRevealed;
+}
@@ -0,0 +1,23 @@
+package io.github.karlmahler.minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.github.karlmahler.minesweeper.SceneRebuild")
+@Label("Scene Rebuild")
+@Category("Minesweeper")
+final class SceneRebuildEvent extends Event {
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Backend")
+    String backend;
+
+    @Label("View")
+    String view;
+}
@@ -0,0 +1,194 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public final class Simulation {
+    private static final int DEFAULT_GAMES = 100_000;
+    private static final int GAMES_PER_BATCH = 1_024;
+    private static final long DEFAULT_SEED = 0x5EEDL;
+    private static final String GAMES_OPTION = "--games=";
+    private static final String DIFFICULTY_OPTION = "--difficulty=";
+    private static final String SEED_OPTION = "--seed=";
+    private static final String THREADS_OPTION = "--threads=";
+
+    private final int games;
+    private final long seed;
+    private final int threads;
+
+    public Simulation(final int games, final long seed, final int threads) {
+        if (games <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("games and threads must be positive");
+        }
+
+        this.games = games;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    public Statistics run(final Difficulty difficulty) {
+        int batches = (games + GAMES_PER_BATCH - 1) / GAMES_PER_BATCH;
+        var batchRandoms = splitPerBatch(batches);
+        var pool = new ForkJoinPool(threads);
+        long startTime = System.nanoTime();
+
+        try {
+            var statistics = pool.submit(() -> IntStream
+                .range(0, batches)
+                .parallel()
+                .mapToObj(batch -> playBatch(difficulty, batch, batchRandoms[batch]))
+                .reduce(new Statistics(), Statistics::merge)
+            ).get();
+
+            statistics.elapsedNanos = System.nanoTime() - startTime;
+
+            return statistics;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("simulation was interrupted", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("simulation failed", exception.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private SplittableRandom[] splitPerBatch(final int batches) {
+        var root = new SplittableRandom(seed);
+        var batchRandoms = new SplittableRandom[batches];
+
+        for (int batch = 0; batch < batches; batch++) {
+            batchRandoms[batch] = root.split();
+        }
+
+        return batchRandoms;
+    }
+
+    private Statistics playBatch(final Difficulty difficulty, final int batch, final SplittableRandom random) {
+        var statistics = new Statistics();
+        int batchGames = Math.min(GAMES_PER_BATCH, games - batch * GAMES_PER_BATCH);
+        var placement = MinePlacement.probability(difficulty.getMineProbability());
+
+        for (int i = 0; i < batchGames; i++) {
+            var board = new Board(difficulty.getBoardSize(), placement, BoardBackend.PACKED, random);
+            var game = new Game(board);
+            var solver = new Solver(game);
+
+            statistics.record(solver.play(), solver.getReveals(), solver.getGuesses());
+        }
+
+        return statistics;
+    }
+
+    public static void run(final String[] args, final PrintStream out) {
+        int games = DEFAULT_GAMES;
+        long seed = DEFAULT_SEED;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Difficulty> difficulties = new ArrayList<>(List.of(Difficulty.values()));
+
+        for (var arg : args) {
+            if (arg.startsWith(GAMES_OPTION)) {
+                games = Integer.parseInt(arg.substring(GAMES_OPTION.length()));
+            } else if (arg.startsWith(SEED_OPTION)) {
+                seed = Long.parseLong(arg.substring(SEED_OPTION.length()));
+            } else if (arg.startsWith(THREADS_OPTION)) {
+                threads = Integer.parseInt(arg.substring(THREADS_OPTION.length()));
+            } else if (arg.startsWith(DIFFICULTY_OPTION)) {
+                var name = arg.substring(DIFFICULTY_OPTION.length()).toUpperCase(Locale.ROOT);
+
+                difficulties = List.of(Difficulty.valueOf(name));
+            } else {
+                throw new IllegalArgumentException(String.format("unknown option %s", arg));
+            }
+        }
+
+        var simulation = new Simulation(games, seed, threads);
+
+        out.printf("%-8s %10s %9s %13s %13s %13s %12s%n", "level", "games", "win rate", "guess rate", "guesses/game", "reveals/game", "games/s");
+
+        for (var difficulty : difficulties) {
+            var statistics = simulation.run(difficulty);
+
+            out.printf(
+                Locale.ROOT,
+                "%-8s %10d %8.2f%% %12.2f%% %13.3f %13.2f %12.0f%n",
+                difficulty.name().toLowerCase(Locale.ROOT),
+                statistics.getGames(),
+                statistics.getWinRate() * 100.0,
+                statistics.getGuessRate() * 100.0,
+                statistics.getAverageGuesses(),
+                statistics.getAverageReveals(),
+                statistics.getGamesPerSecond()
+            );
+        }
+    }
+
+    public static final class Statistics {
+        private long games;
+        private long wins;
+        private long gamesWithGuesses;
+        private long guesses;
+        private long reveals;
+        private long elapsedNanos;
+
+        private void record(final GameState state, final int reveals, final int guesses) {
+            this.games++;
+            this.reveals += reveals;
+            this.guesses += guesses;
+
+            if (state == GameState.WON) {
+                this.wins++;
+            }
+
+            if (guesses > 0) {
+                this.gamesWithGuesses++;
+            }
+        }
+
+        private Statistics merge(final Statistics other) {
+            var merged = new Statistics();
+
+            merged.games = games + other.games;
+            merged.wins = wins + other.wins;
+            merged.gamesWithGuesses = gamesWithGuesses + other.gamesWithGuesses;
+            merged.guesses = guesses + other.guesses;
+            merged.reveals = reveals + other.reveals;
+
+            return merged;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        public double getWinRate() {
+            return (double) wins / games;
+        }
+
+        public double getGuessRate() {
+            return (double) gamesWithGuesses / games;
+        }
+
+        public double getAverageGuesses() {
+            return (double) guesses / games;
+        }
+
+        public double getAverageReveals() {
+            return (double) reveals / games;
+        }
+
+        public double getGamesPerSecond() {
+            return games / (elapsedNanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package io.github.karlmahler.minesweeper;
+
+public final class Solver {
+    private static final int SUBSET_DISTANCE = 2;
+
+    private final Game game;
+    private final int rows;
+    private final int columns;
+    private final int[] hidden;
+    private final int[] otherHidden;
+    private final int[] neighbours;
+    private BoardStorage storage;
+    private Neighbourhood neighbourhood;
+    private int reveals;
+    private int guesses;
+
+    public Solver(final Game game) {
+        this.game = game;
+        this.rows = game.getBoard().getRows();
+        this.columns = game.getBoard().getColumns();
+        this.hidden = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+        this.otherHidden = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+        this.neighbours = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+    }
+
+    public GameState play(final int startRow, final int startColumn) {
+        solve(startRow, startColumn, true);
+
+        return game.getState();
+    }
+
+    // Returns whether the game can be won from the start cell without guessing.
+    public boolean solveWithoutGuessing(final int startRow, final int startColumn) {
+        solve(startRow, startColumn, false);
+
+        return game.getState() == GameState.WON;
+    }
+
+    private void solve(final int startRow, final int startColumn, final boolean guessing) {
+        reveal(startRow * columns + startColumn);
+
+        this.storage = game.getBoard().getStorage();
+        this.neighbourhood = game.getBoard().getNeighbourhood();
+
+        while (!game.getState().isOver()) {
+            if (applySingleCellRules() || applySubsetRules()) {
+                continue;
+            }
+
+            if (!guessing) {
+                return;
+            }
+
+            guess();
+        }
+    }
+
+    public GameState play() {
+        return play(rows / 2, columns / 2);
+    }
+
+    public int getReveals() {
+        return reveals;
+    }
+
+    public int getGuesses() {
+        return guesses;
+    }
+
+    // A number whose flags are complete frees its other neighbours; a number
+    // with exactly as many hidden neighbours as missing flags pins them all.
+    private boolean applySingleCellRules() {
+        boolean progress = false;
+
+        for (int index = 0; index < storage.getCellCount() && !game.getState().isOver(); index++) {
+            if (!isConstraint(index)) {
+                continue;
+            }
+
+            int hiddenCount = collectHidden(index, hidden);
+
+            if (hiddenCount == 0) {
+                continue;
+            }
+
+            int missingMines = countMissingMines(index);
+
+            if (missingMines == 0) {
+                revealAll(hidden, hiddenCount);
+                progress = true;
+            } else if (missingMines == hiddenCount) {
+                flagAll(hidden, hiddenCount);
+                progress = true;
+            }
+        }
+
+        return progress;
+    }
+
+    // When the hidden neighbours of one number are a subset of another's,
+    // the difference must hold exactly the difference of their missing mines.
+    private boolean applySubsetRules() {
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            if (!isConstraint(index)) {
+                continue;
+            }
+
+            int hiddenCount = collectHidden(index, hidden);
+
+            if (hiddenCount == 0) {
+                continue;
+            }
+
+            int row = index / columns;
+            int column = index % columns;
+
+            for (int otherRow = Math.max(row - SUBSET_DISTANCE, 0); otherRow <= Math.min(row + SUBSET_DISTANCE, rows - 1); otherRow++) {
+                for (int otherColumn = Math.max(column - SUBSET_DISTANCE, 0); otherColumn <= Math.min(column + SUBSET_DISTANCE, columns - 1); otherColumn++) {
+                    int other = otherRow * columns + otherColumn;
+
+                    if (other != index && isConstraint(other) && applySubsetRule(index, hiddenCount, other)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean applySubsetRule(final int index, final int hiddenCount, final int other) {
+        for (int i = 0; i < hiddenCount; i++) {
+            if (!areNeighbours(hidden[i], other)) {
+                return false;
+            }
+        }
+
+        int otherHiddenCount = collectHidden(other, otherHidden);
+        int differenceCount = 0;
+
+        for (int i = 0; i < otherHiddenCount; i++) {
+            if (!areNeighbours(otherHidden[i], index)) {
+                otherHidden[differenceCount++] = otherHidden[i];
+            }
+        }
+
+        if (differenceCount == 0) {
+            return false;
+        }
+
+        int differenceMines = countMissingMines(other) - countMissingMines(index);
+
+        if (differenceMines == 0) {
+            revealAll(otherHidden, differenceCount);
+            return true;
+        }
+
+        if (differenceMines == differenceCount) {
+            flagAll(otherHidden, differenceCount);
+            return true;
+        }
+
+        return false;
+    }
+
+    // Falls back to the hidden cell with the lowest local mine estimate.
+    private void guess() {
+        double unknownMines = game.getRemainingFlags();
+        int unknownCells = 0;
+
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            if (storage.getStatus(index) == BoardStorage.HIDDEN) {
+                unknownCells++;
+            }
+        }
+
+        double defaultEstimate = unknownMines / unknownCells;
+        double bestEstimate = Double.MAX_VALUE;
+        int bestIndex = -1;
+
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            if (storage.getStatus(index) != BoardStorage.HIDDEN) {
+                continue;
+            }
+
+            double estimate = estimateMine(index, defaultEstimate);
+
+            if (estimate < bestEstimate) {
+                bestEstimate = estimate;
+                bestIndex = index;
+            }
+        }
+
+        guesses++;
+        reveal(bestIndex);
+    }
+
+    private double estimateMine(final int index, final double defaultEstimate) {
+        int count = neighbourhood.collect(index, neighbours);
+        double estimate = -1.0;
+
+        for (int i = 0; i < count; i++) {
+            int neighbour = neighbours[i];
+
+            if (isConstraint(neighbour)) {
+                double local = (double) countMissingMines(neighbour) / collectHidden(neighbour, otherHidden);
+
+                estimate = Math.max(estimate, local);
+            }
+        }
+
+        return estimate < 0.0 ? defaultEstimate : estimate;
+    }
+
+    private boolean isConstraint(final int index) {
+        return storage.getStatus(index) == BoardStorage.REVEALED && storage.getAdjacentMines(index) > 0;
+    }
+
+    private int countMissingMines(final int index) {
+        return storage.getAdjacentMines(index) - neighbourhood.countWithStatus(storage, index, BoardStorage.MARKED);
+    }
+
+    // Collects the neighbours and compacts the hidden ones to the front in place.
+    private int collectHidden(final int index, final int[] cells) {
+        int count = neighbourhood.collect(index, cells);
+        int hiddenCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (storage.getStatus(cells[i]) == BoardStorage.HIDDEN) {
+                cells[hiddenCount++] = cells[i];
+            }
+        }
+
+        return hiddenCount;
+    }
+
+    private boolean areNeighbours(final int first, final int second) {
+        return (
+            Math.abs(first / columns - second / columns) <= 1 &&
+            Math.abs(first % columns - second % columns) <= 1
+        );
+    }
+
+    private void revealAll(final int[] cells, final int count) {
+        for (int i = 0; i < count && !game.getState().isOver(); i++) {
+            if (storage.getStatus(cells[i]) == BoardStorage.HIDDEN) {
+                reveal(cells[i]);
+            }
+        }
+    }
+
+    private void flagAll(final int[] cells, final int count) {
+        for (int i = 0; i < count; i++) {
+            game.flag(cells[i]);
+        }
+    }
+
+    private void reveal(final int index) {
+        reveals++;
+        game.reveal(index);
+    }
+}
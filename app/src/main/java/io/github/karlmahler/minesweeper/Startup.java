@@ -0,0 +1,54 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+
+// Startup helpers: a warmup that loads and exercises the game classes on a
+// background thread while the JavaFX toolkit starts, and the probe mode used
+// by the build to time the first interactive frame and then exit.
+final class Startup {
+    static final String FIRST_FRAME_PREFIX = "first interactive frame after ";
+
+    private static volatile boolean probe;
+
+    private Startup() {
+    }
+
+    static void enableProbe() {
+        probe = true;
+    }
+
+    static boolean isProbe() {
+        return probe;
+    }
+
+    // Skipped with --metrics: the warmup game would otherwise show up in the
+    // latency histograms and JFR events as moves the user never made.
+    static void warmUp() {
+        if (Metrics.isEnabled()) {
+            return;
+        }
+
+        Thread.ofPlatform().daemon().name("minesweeper-warmup").start(() -> {
+            var difficulty = Difficulty.EASY;
+            var game = new Game(new Board(difficulty.getBoardSize(), difficulty.getMineProbability()));
+
+            new Solver(game).play();
+        });
+    }
+
+    // Measured from process start, so JVM boot and class loading are included.
+    static long getMillisSinceLaunch() {
+        return ProcessHandle
+            .current()
+            .info()
+            .startInstant()
+            .map(start -> Duration.between(start, Instant.now()).toMillis())
+            .orElse(-1L);
+    }
+
+    static void reportFirstFrame(final PrintStream out) {
+        out.printf("%s%d ms%n", FIRST_FRAME_PREFIX, getMillisSinceLaunch());
+    }
+}
@@ -1,5 +1,6 @@
 module minesweeper {
     requires javafx.controls;
+    requires jdk.jfr;
 
     exports io.github.karlmahler.minesweeper;
 }
@@ -0,0 +1,35 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdjacencyCounterTest {
+    @Test
+    void wordParallelCountsMatchScalarCounts() {
+        var random = new SplittableRandom(7L);
+        int[][] dimensions = { { 1, 1 }, { 3, 63 }, { 8, 64 }, { 17, 65 }, { 40, 130 }, { 129, 7 } };
+
+        for (int[] dimension : dimensions) {
+            for (double density : new double[] { 0.0, 0.2, 0.9, 1.0 }) {
+                var scalar = new PackedBoardStorage(dimension[0], dimension[1]);
+                var parallel = new PackedBoardStorage(dimension[0], dimension[1]);
+
+                for (int index = 0; index < scalar.getCellCount(); index++) {
+                    boolean mine = random.nextDouble() < density;
+
+                    scalar.setMine(index, mine);
+                    parallel.setMine(index, mine);
+                }
+
+                AdjacencyCounter.countScalar(scalar);
+                AdjacencyCounter.count(parallel);
+
+                for (int index = 0; index < scalar.getCellCount(); index++) {
+                    assertEquals(scalar.getAdjacentMines(index), parallel.getAdjacentMines(index));
+                }
+            }
+        }
+    }
+}
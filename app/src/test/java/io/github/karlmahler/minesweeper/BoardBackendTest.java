@@ -0,0 +1,72 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardBackendTest {
+    private static final long SEED = 42L;
+    private static final long PLENTY = Long.MAX_VALUE;
+
+    @Test
+    void selectsPackedStorageForOrdinaryBoards() {
+        assertEquals(BoardBackend.PACKED, BoardBackend.select(8, 8, 10, PLENTY));
+        assertEquals(BoardBackend.PACKED, BoardBackend.select(4096, 4096, 1_000_000, PLENTY));
+    }
+
+    @Test
+    void selectsChunkedStorageForHugeBoards() {
+        assertEquals(BoardBackend.CHUNKED, BoardBackend.select(20_000, 20_000, 1_000_000, PLENTY));
+    }
+
+    @Test
+    void rejectsBoardsThatDoNotFit() {
+        assertThrows(IllegalArgumentException.class, () -> BoardBackend.select(10_000, 10_000, 0, 1L << 20));
+        assertThrows(IllegalArgumentException.class, () -> BoardBackend.select(0, 10, 0, PLENTY));
+        assertThrows(IllegalArgumentException.class, () -> BoardBackend.select(100_000, 100_000, 0, PLENTY));
+    }
+
+    @Test
+    void chunkedStorageMatchesPackedStorageAcrossChunks() {
+        // Just over one chunk, so the board crosses a chunk boundary mid-row.
+        int rows = 1500;
+        int columns = 2800;
+        var placement = MinePlacement.probability(Difficulty.EASY.getMineProbability());
+        var packed = new Board(rows, columns, placement, BoardBackend.PACKED, new SplittableRandom(SEED));
+        var chunked = new Board(rows, columns, placement, BoardBackend.CHUNKED, new SplittableRandom(SEED));
+        int start = rows / 2 * columns + columns / 2;
+
+        packed.buildGrid(rows / 2, columns / 2);
+        chunked.buildGrid(rows / 2, columns / 2);
+        packed.reveal(start);
+        chunked.reveal(start);
+
+        assertEquals(packed.getMineCount(), chunked.getMineCount());
+        assertEquals(packed.getRevealedCells(), chunked.getRevealedCells());
+
+        for (int index = 0; index < packed.getCellCount(); index++) {
+            assertEquals(packed.getStorage().hasMine(index), chunked.getStorage().hasMine(index));
+            assertEquals(packed.getStorage().getAdjacentMines(index), chunked.getStorage().getAdjacentMines(index));
+            assertEquals(packed.getStorage().getStatus(index), chunked.getStorage().getStatus(index));
+        }
+    }
+
+    @Test
+    void customSettingsRejectTooManyMines() {
+        assertThrows(IllegalArgumentException.class, () -> GameSettings.withMineCount(3, 3, 1));
+        assertEquals(91, GameSettings.withMineCount(10, 10, 91).getExpectedMines());
+        assertThrows(IllegalArgumentException.class, () -> GameSettings.withDensity(10, 20, 101.0));
+    }
+
+    @Test
+    void generatedBoardsReportTheHeapTheyHold() {
+        var board = new Board(100, 200, MinePlacement.exact(500), BoardBackend.PACKED, new SplittableRandom(SEED));
+
+        assertEquals(0, board.getEstimatedBytes());
+
+        board.buildGrid(0, 0);
+
+        assertEquals(BoardBackend.PACKED.estimateBytes(20_000, 500), board.getEstimatedBytes());
+    }
+}
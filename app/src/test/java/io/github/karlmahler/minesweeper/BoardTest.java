@@ -0,0 +1,247 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+    private static final int SIZE = 16;
+    private static final double MINE_PROBABILITY = 20.0;
+    private static final long SEED = 42L;
+
+    @Test
+    void backendsProduceTheSameBoardForTheSameSeed() {
+        var objectBoard = new Board(SIZE, MinePlacement.probability(MINE_PROBABILITY), BoardBackend.OBJECT, new Random(SEED));
+        var packedBoard = new Board(SIZE, MinePlacement.probability(MINE_PROBABILITY), BoardBackend.PACKED, new Random(SEED));
+
+        objectBoard.buildGrid(3, 4);
+        packedBoard.buildGrid(3, 4);
+
+        List<List<Cell>> objectGrid = objectBoard.getGrid();
+        List<List<Cell>> packedGrid = packedBoard.getGrid();
+
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                var objectCell = objectGrid.get(row).get(column);
+                var packedCell = packedGrid.get(row).get(column);
+
+                assertEquals(objectCell.hasMine(), packedCell.hasMine());
+                assertEquals(objectCell.getAdjacentMines(), packedCell.getAdjacentMines());
+            }
+        }
+    }
+
+    @Test
+    void startCellAndItsNeighboursNeverHoldMines() {
+        var board = new Board(SIZE, MinePlacement.probability(100.0), BoardBackend.PACKED, new Random(SEED));
+
+        board.buildGrid(0, 0);
+
+        var grid = board.getGrid();
+
+        assertFalse(grid.get(0).get(0).hasMine());
+        assertFalse(grid.get(0).get(1).hasMine());
+        assertFalse(grid.get(1).get(0).hasMine());
+        assertFalse(grid.get(1).get(1).hasMine());
+        assertTrue(grid.get(2).get(2).hasMine());
+    }
+
+    @Test
+    void packedCellKeepsStatusAndCountIndependent() {
+        var storage = new PackedBoardStorage(1, 2);
+        var cell = new Cell(storage, 1);
+
+        cell.setAdjacentMines(8);
+        storage.setMine(1, true);
+        cell.setMarked();
+
+        assertTrue(cell.isMarked());
+        assertTrue(cell.hasMine());
+        assertEquals(8, cell.getAdjacentMines());
+
+        cell.unsetMarked();
+        cell.setRevealed();
+
+        assertTrue(cell.isRevealed());
+        assertEquals(8, cell.getAdjacentMines());
+        assertFalse(storage.hasMine(0));
+        assertTrue(new Cell(storage, 0).isHidden());
+    }
+
+    @Test
+    void exactPlacementPlacesTheRequestedNumberOfMines() {
+        for (int mineCount : new int[] { 0, 40, 200, SIZE * SIZE - 9 }) {
+            var board = new Board(SIZE, MinePlacement.exact(mineCount), BoardBackend.PACKED, new SplittableRandom(SEED));
+
+            board.buildGrid(SIZE / 2, SIZE / 2);
+
+            long mines = board
+                .getGrid()
+                .stream()
+                .flatMap(List::stream)
+                .filter(Cell::hasMine)
+                .count();
+
+            assertEquals(mineCount, mines);
+            assertEquals(mineCount, board.getMineCount());
+            assertFalse(board.getGrid().get(SIZE / 2).get(SIZE / 2).hasMine());
+        }
+    }
+
+    @Test
+    void exactPlacementRejectsMoreMinesThanFreeCells() {
+        var board = new Board(SIZE, MinePlacement.exact(SIZE * SIZE - 8), BoardBackend.PACKED, new SplittableRandom(SEED));
+
+        assertThrows(IllegalArgumentException.class, () -> board.buildGrid(5, 5));
+    }
+
+    @Test
+    void parallelGenerationIsDeterministicAndCountsAcrossBands() {
+        int size = 300;
+        var first = new Board(size, MinePlacement.probability(MINE_PROBABILITY), BoardBackend.PACKED, new SplittableRandom(SEED));
+        var second = new Board(size, MinePlacement.probability(MINE_PROBABILITY), BoardBackend.PACKED, new SplittableRandom(SEED));
+
+        first.buildGridInParallel(100, 100);
+        second.buildGridInParallel(100, 100);
+
+        var firstStorage = first.getStorage();
+        var secondStorage = second.getStorage();
+        var expected = new PackedBoardStorage(size, size);
+
+        for (int index = 0; index < firstStorage.getCellCount(); index++) {
+            assertEquals(firstStorage.hasMine(index), secondStorage.hasMine(index));
+            expected.setMine(index, firstStorage.hasMine(index));
+        }
+
+        AdjacencyCounter.countScalar(expected);
+
+        for (int index = 0; index < firstStorage.getCellCount(); index++) {
+            assertEquals(expected.getAdjacentMines(index), firstStorage.getAdjacentMines(index));
+        }
+
+        assertEquals(first.getMineCount(), second.getMineCount());
+    }
+
+    @Test
+    void noGuessBoardsAreSolvableWithoutGuessing() {
+        for (long seed = 0; seed < 20; seed++) {
+            var placement = MinePlacement.noGuess(MinePlacement.probability(Difficulty.HARD.getMineProbability()), 2);
+            var board = new Board(Difficulty.HARD.getBoardSize(), placement, BoardBackend.PACKED, new SplittableRandom(seed));
+            var solver = new Solver(new Game(board));
+
+            assertTrue(solver.solveWithoutGuessing(9, 9));
+            assertEquals(0, solver.getGuesses());
+        }
+    }
+
+    @Test
+    void noGuessGenerationGivesUpOnAnUnsatisfiableDensity() {
+        // Starting in a corner of a 2 x 4 board, three mines in the far four
+        // cells always leave a 50/50, however the layout is repaired.
+        var placement = MinePlacement.noGuess(MinePlacement.exact(3), 2);
+        var board = new Board(2, 4, placement, BoardBackend.PACKED, new SplittableRandom(SEED));
+
+        assertThrows(IllegalStateException.class, () -> board.buildGrid(0, 0));
+    }
+
+    // A 4 x 4 board with mines in the bottom corners: revealing the top-left
+    // corner uncovers the top three rows and nothing else.
+    private static Board createCornerMinesBoard() {
+        var layout = new PackedBoardStorage(4, 4);
+
+        layout.setMine(12, true);
+        layout.setMine(15, true);
+
+        var board = new Board(4, MinePlacement.fixed(layout), BoardBackend.PACKED, new Random(SEED));
+
+        board.buildGrid(0, 0);
+
+        return board;
+    }
+
+    private static int[] sortedChanges(final Board board) {
+        int[] changes = board.getChanges().toArray();
+
+        Arrays.sort(changes);
+
+        return changes;
+    }
+
+    @Test
+    void markingAndUnmarkingTrackFlagsAndChanges() {
+        var board = createCornerMinesBoard();
+
+        assertTrue(board.mark(12));
+        assertFalse(board.mark(12));
+        assertEquals(1, board.getFlaggedCells());
+        assertTrue(board.unmark(12));
+        assertFalse(board.unmark(12));
+        assertEquals(0, board.getFlaggedCells());
+        assertArrayEquals(new int[] {12, 12}, board.getChanges().toArray());
+
+        board.clearChanges();
+
+        assertTrue(board.getChanges().isEmpty());
+    }
+
+    @Test
+    void cascadeRecordsEveryRevealedCellAndClearsFlagsInTheWay() {
+        var board = createCornerMinesBoard();
+
+        board.mark(5);
+        board.clearChanges();
+
+        assertFalse(board.reveal(0));
+        assertEquals(12, board.getRevealedCells());
+        assertEquals(0, board.getFlaggedCells());
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}, sortedChanges(board));
+        assertFalse(board.isCleared());
+
+        board.clearChanges();
+
+        // Already revealed: nothing changes.
+        assertFalse(board.reveal(5));
+        assertTrue(board.getChanges().isEmpty());
+    }
+
+    @Test
+    void lossRecordsTheMineAndThenTheRemainingMines() {
+        var board = createCornerMinesBoard();
+
+        board.mark(12);
+        board.clearChanges();
+
+        assertTrue(board.reveal(15));
+        assertArrayEquals(new int[] {15}, board.getChanges().toArray());
+        assertEquals(0, board.getRevealedCells());
+
+        board.clearChanges();
+        board.revealMines();
+
+        // The flagged mine stays flagged.
+        assertTrue(board.getChanges().isEmpty());
+
+        board.unmark(12);
+        board.clearChanges();
+        board.revealMines();
+
+        assertArrayEquals(new int[] {12}, board.getChanges().toArray());
+        assertEquals(0, board.getFlaggedCells());
+    }
+
+    @Test
+    void revealingTheLastSafeCellClearsTheBoard() {
+        var board = createCornerMinesBoard();
+
+        board.reveal(0);
+        board.reveal(13);
+        board.reveal(14);
+
+        assertEquals(14, board.getRevealedCells());
+        assertTrue(board.isCleared());
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.karlmahler.minesweeper;
+
+import javafx.scene.input.MouseButton;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChordGestureTest {
+    @Test
+    void singleClicksPassThrough() {
+        var gesture = new ChordGesture();
+
+        gesture.press(MouseButton.PRIMARY, true, false);
+        assertEquals(MouseButton.PRIMARY, gesture.translate(MouseButton.PRIMARY, false, false));
+        gesture.press(MouseButton.SECONDARY, false, true);
+        assertEquals(MouseButton.SECONDARY, gesture.translate(MouseButton.SECONDARY, false, false));
+        assertEquals(MouseButton.MIDDLE, gesture.translate(MouseButton.MIDDLE, false, false));
+    }
+
+    @Test
+    void releasingOneOfTwoButtonsChordsAndSwallowsTheOther() {
+        var gesture = new ChordGesture();
+
+        gesture.press(MouseButton.PRIMARY, true, false);
+        gesture.press(MouseButton.SECONDARY, true, true);
+
+        assertEquals(MouseButton.MIDDLE, gesture.translate(MouseButton.SECONDARY, true, false));
+        assertNull(gesture.translate(MouseButton.PRIMARY, false, false));
+
+        gesture.press(MouseButton.PRIMARY, true, false);
+        assertEquals(MouseButton.PRIMARY, gesture.translate(MouseButton.PRIMARY, false, false));
+    }
+
+    @Test
+    void aLostSecondReleaseDoesNotSwallowTheNextClick() {
+        var gesture = new ChordGesture();
+
+        gesture.press(MouseButton.PRIMARY, true, false);
+        gesture.press(MouseButton.SECONDARY, true, true);
+        assertEquals(MouseButton.MIDDLE, gesture.translate(MouseButton.SECONDARY, true, false));
+
+        // The primary button was released over another cell, so no click arrived for it.
+        gesture.press(MouseButton.SECONDARY, false, true);
+
+        assertEquals(MouseButton.SECONDARY, gesture.translate(MouseButton.SECONDARY, false, false));
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBoardTest {
+    private static final int SIZE = 256;
+    private static final int PLAYERS = 4;
+
+    @Test
+    void concurrentPlayersRevealEachCellExactlyOnce() throws InterruptedException, ExecutionException {
+        var board = new Board(SIZE, MinePlacement.probability(12.0), BoardBackend.PACKED, new SplittableRandom(5L));
+
+        board.buildGrid(SIZE / 2, SIZE / 2);
+
+        var layout = board.getStorage();
+        var concurrentBoard = new ConcurrentBoard(layout);
+        ExecutorService executor = Executors.newFixedThreadPool(PLAYERS);
+        List<Future<ChangeSet>> results = new ArrayList<>();
+
+        try {
+            for (int player = 0; player < PLAYERS; player++) {
+                long seed = player;
+
+                results.add(executor.submit(() -> {
+                    var changes = new ChangeSet();
+                    var random = new SplittableRandom(seed);
+
+                    for (int i = 0; i < layout.getCellCount(); i++) {
+                        int index = random.nextInt(layout.getCellCount());
+
+                        if (layout.hasMine(index)) {
+                            concurrentBoard.mark(index);
+                        } else {
+                            concurrentBoard.reveal(index, changes);
+                        }
+                    }
+
+                    for (int index = 0; index < layout.getCellCount(); index++) {
+                        if (layout.hasMine(index)) {
+                            concurrentBoard.mark(index);
+                        } else {
+                            concurrentBoard.reveal(index, changes);
+                        }
+                    }
+
+                    return changes;
+                }));
+            }
+
+            var revealedBy = new int[layout.getCellCount()];
+
+            for (var result : results) {
+                var changes = result.get();
+
+                for (int i = 0; i < changes.size(); i++) {
+                    revealedBy[changes.get(i)]++;
+                }
+            }
+
+            for (int index = 0; index < layout.getCellCount(); index++) {
+                boolean mine = layout.hasMine(index);
+
+                assertEquals(mine ? 0 : 1, revealedBy[index]);
+                assertEquals(mine ? BoardStorage.MARKED : BoardStorage.REVEALED, concurrentBoard.getStatus(index));
+            }
+
+            assertTrue(concurrentBoard.isCleared());
+            assertEquals(concurrentBoard.getMineCount(), concurrentBoard.getFlaggedCells());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void revealingAMineIsReportedOnce() {
+        var storage = new PackedBoardStorage(1, 2);
+
+        storage.setMine(0, true);
+        AdjacencyCounter.count(storage);
+
+        var board = new ConcurrentBoard(storage);
+        var changes = new ChangeSet();
+
+        assertTrue(board.reveal(0, changes));
+        assertFalse(board.reveal(0, changes));
+        assertEquals(1, changes.size());
+        assertEquals(0, board.getRevealedCells());
+    }
+
+    @Test
+    void aLimitedChangeSetDoesNotStopTheCascade() {
+        var storage = new PackedBoardStorage(16, 16);
+
+        storage.setMine(255, true);
+        AdjacencyCounter.count(storage);
+
+        var board = new ConcurrentBoard(storage);
+        var changes = new ChangeSet(4);
+
+        assertFalse(board.reveal(0, changes));
+        assertTrue(changes.isOverflowed());
+        assertEquals(4, changes.size());
+        assertEquals(255, board.getRevealedCells());
+        assertTrue(board.isCleared());
+
+        for (int index = 0; index < 255; index++) {
+            assertEquals(BoardStorage.REVEALED, board.getStatus(index));
+        }
+    }
+}
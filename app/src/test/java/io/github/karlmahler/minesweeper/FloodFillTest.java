@@ -0,0 +1,51 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloodFillTest {
+    @Test
+    void revealsWholeEmptyBoardWithoutRecursion() {
+        var storage = new PackedBoardStorage(2_000, 2_000);
+        var changes = new ChangeSet();
+
+        new FloodFill(storage).reveal(0, changes);
+
+        assertEquals(storage.getCellCount(), changes.size());
+    }
+
+    @Test
+    void interruptedCascadeStops() {
+        var storage = new PackedBoardStorage(2_000, 2_000);
+
+        Thread.currentThread().interrupt();
+
+        try {
+            assertThrows(CancellationException.class, () -> new FloodFill(storage).reveal(0, new ChangeSet()));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void stopsAtNumberedCellsAndClearsFlags() {
+        var storage = new PackedBoardStorage(3, 3);
+        var changes = new ChangeSet();
+
+        // mine in the bottom-right corner
+        storage.setMine(8, true);
+        storage.setAdjacentMines(4, 1);
+        storage.setAdjacentMines(5, 1);
+        storage.setAdjacentMines(7, 1);
+        storage.setStatus(1, BoardStorage.MARKED);
+
+        int clearedFlags = new FloodFill(storage).reveal(0, changes);
+
+        assertEquals(1, clearedFlags);
+        assertEquals(8, changes.size());
+        assertEquals(BoardStorage.HIDDEN, storage.getStatus(8));
+        assertEquals(BoardStorage.REVEALED, storage.getStatus(1));
+    }
+}
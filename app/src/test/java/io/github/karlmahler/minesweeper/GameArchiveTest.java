@@ -0,0 +1,73 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+    private static final int GAMES = 50;
+
+    @Test
+    void archivedGamesReadBackAndReplayIdentically() throws IOException {
+        var path = Files.createTempFile("minesweeper", ".archive");
+        var random = new SplittableRandom(21L);
+        List<Game> games = new ArrayList<>();
+
+        try {
+            try (var writer = GameArchive.create(path)) {
+                for (int i = 0; i < GAMES; i++) {
+                    var difficulty = Difficulty.values()[i % Difficulty.values().length];
+                    var placement = MinePlacement.probability(difficulty.getMineProbability());
+                    var game = new Game(new Board(difficulty.getBoardSize(), placement, BoardBackend.PACKED, random));
+
+                    new Solver(game).play();
+                    writer.write(game);
+                    games.add(game);
+                }
+            }
+
+            try (var reader = GameArchive.open(path)) {
+                assertEquals(GAMES, reader.size());
+
+                for (int i = GAMES - 1; i >= 0; i--) {
+                    var expected = games.get(i);
+                    var storage = expected.getBoard().getStorage();
+                    var record = reader.read(i);
+
+                    assertEquals(expected.getMineCount(), record.getMineCount());
+                    assertEquals(expected.getMoves().size(), record.getMoveCount());
+
+                    for (int index = 0; index < storage.getCellCount(); index++) {
+                        assertEquals(storage.hasMine(index), record.hasMine(index));
+                        assertEquals(storage.getStatus(index), record.getStatus(index));
+                    }
+
+                    var replayed = record.replay();
+
+                    assertEquals(expected.getState(), replayed.getState());
+                    assertEquals(expected.getRevealedCells(), replayed.getRevealedCells());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotArchives() throws IOException {
+        var path = Files.createTempFile("minesweeper", ".archive");
+
+        try {
+            Files.write(path, new byte[64]);
+
+            assertThrows(IOException.class, () -> GameArchive.open(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private static final int SIZE = 16;
+    private static final long SEED = 3L;
+
+    @Test
+    void repliesMatchALocalGame() throws IOException {
+        var loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        int[] moves = { 0, SIZE * SIZE - 1, SIZE * 3 + 7, SIZE * 9 + 2 };
+        var local = new Game(new Board(SIZE, MinePlacement.probability(15.0), BoardBackend.PACKED, new SplittableRandom(SEED)));
+
+        try (var server = GameServer.start(loopback); var channel = SocketChannel.open(server.getAddress())) {
+            var request = ByteBuffer.allocate(256);
+
+            request.putInt(0);
+            request.put(Protocol.NEW_GAME);
+            Protocol.putVarint(request, SIZE);
+            Protocol.putVarint(request, 1500);
+            request.putLong(SEED);
+
+            for (int move : moves) {
+                request.put(Protocol.REVEAL);
+                Protocol.putVarint(request, move);
+            }
+
+            request.put(Protocol.FLAG);
+            Protocol.putVarint(request, moves[1]);
+            request.putInt(0, request.position() - Protocol.FRAME_HEADER_SIZE);
+            channel.write(request.flip());
+
+            var reply = readFrame(channel);
+
+            assertEquals(GameState.READY.ordinal(), reply.get());
+            assertEquals(0, Protocol.getVarint(reply));
+
+            for (int move : moves) {
+                assertChangesMatch(local, local.reveal(move), reply);
+            }
+
+            assertChangesMatch(local, local.flag(moves[1]), reply);
+            assertFalse(reply.hasRemaining());
+        }
+    }
+
+    @Test
+    void largeRepliesAreSplitAcrossFrames() throws IOException {
+        var loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        int size = Protocol.MAXIMUM_BOARD_SIZE;
+        int games = 3;
+
+        try (var server = GameServer.start(loopback); var channel = SocketChannel.open(server.getAddress())) {
+            var request = ByteBuffer.allocate(256);
+
+            request.putInt(0);
+
+            // Every reveal of an empty board changes each of its cells.
+            for (int game = 0; game < games; game++) {
+                request.put(Protocol.NEW_GAME);
+                Protocol.putVarint(request, size);
+                Protocol.putVarint(request, 0);
+                request.putLong(SEED);
+                request.put(Protocol.REVEAL);
+                Protocol.putVarint(request, 0);
+            }
+
+            request.putInt(0, request.position() - Protocol.FRAME_HEADER_SIZE);
+            channel.write(request.flip());
+
+            int results = 0;
+            int frames = 0;
+
+            while (results < 2 * games) {
+                var reply = readFrame(channel);
+
+                assertTrue(reply.limit() <= Protocol.MAXIMUM_REPLY_SIZE);
+                frames++;
+
+                while (reply.hasRemaining()) {
+                    reply.get();
+
+                    int count = Protocol.getVarint(reply);
+
+                    assertEquals(results % 2 == 0 ? 0 : size * size, count);
+
+                    for (int i = 0; i < count; i++) {
+                        Protocol.getVarint(reply);
+                        reply.get();
+                    }
+
+                    results++;
+                }
+            }
+
+            assertTrue(frames > 1);
+        }
+    }
+
+    private static void assertChangesMatch(final Game local, final ChangeSet expected, final ByteBuffer reply) throws IOException {
+        var storage = local.getBoard().getStorage();
+        int[] indices = expected.toArray();
+
+        Arrays.sort(indices);
+
+        assertEquals(local.getState().ordinal(), reply.get());
+        assertEquals(indices.length, Protocol.getVarint(reply));
+
+        int index = 0;
+
+        for (int expectedIndex : indices) {
+            index += Protocol.getVarint(reply);
+
+            assertEquals(expectedIndex, index);
+            assertEquals(Protocol.encodeCell(storage, index), reply.get());
+        }
+    }
+
+    private static ByteBuffer readFrame(final SocketChannel channel) throws IOException {
+        var header = ByteBuffer.allocate(Protocol.FRAME_HEADER_SIZE);
+
+        readFully(channel, header);
+
+        var frame = ByteBuffer.allocate(header.getInt(0));
+
+        readFully(channel, frame);
+
+        return frame.flip();
+    }
+
+    private static void readFully(final SocketChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("connection closed");
+            }
+        }
+    }
+
+    @Test
+    void loadGeneratorCompletesAllMoves() throws IOException, InterruptedException {
+        var loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        try (var server = GameServer.start(loopback)) {
+            var generator = new LoadGenerator(server.getAddress(), 3, 20_000, 64, 4, Difficulty.MEDIUM);
+            var result = generator.run();
+
+            assertEquals(60_000L, result.getMoves());
+            assertTrue(result.getGames() > 3);
+        }
+    }
+
+    @Test
+    void truncatedVarintsAreProtocolErrors() {
+        var buffer = ByteBuffer.wrap(new byte[] { (byte) 0x81, (byte) 0x80 });
+
+        assertThrows(IOException.class, () -> Protocol.getVarint(buffer));
+    }
+
+    @Test
+    void malformedFramesCloseOnlyTheirConnection() throws IOException {
+        var loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        var truncatedNewGame = new byte[] { Protocol.NEW_GAME, 16, 10, 0, 0 };
+        var truncatedMove = new byte[] { Protocol.NEW_GAME, 16, 10, 0, 0, 0, 0, 0, 0, 0, 0, Protocol.REVEAL, (byte) 0x80 };
+        var unknownOpcode = new byte[] { 9, 1 };
+
+        try (var server = GameServer.start(loopback)) {
+            for (var command : new byte[][] { truncatedNewGame, truncatedMove, unknownOpcode }) {
+                try (var channel = SocketChannel.open(server.getAddress())) {
+                    var request = ByteBuffer.allocate(Protocol.FRAME_HEADER_SIZE + command.length);
+
+                    request.putInt(command.length).put(command);
+                    channel.write(request.flip());
+
+                    assertEquals(-1, channel.read(ByteBuffer.allocate(64)));
+                }
+            }
+
+            try (var channel = SocketChannel.open(server.getAddress())) {
+                var request = ByteBuffer.allocate(64);
+
+                request.putInt(0);
+                request.put(Protocol.NEW_GAME);
+                Protocol.putVarint(request, SIZE);
+                Protocol.putVarint(request, 1500);
+                request.putLong(SEED);
+                request.putInt(0, request.position() - Protocol.FRAME_HEADER_SIZE);
+                channel.write(request.flip());
+
+                assertEquals(GameState.READY.ordinal(), readFrame(channel).get());
+            }
+        }
+    }
+}
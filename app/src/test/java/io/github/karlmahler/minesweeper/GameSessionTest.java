@@ -0,0 +1,101 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionTest {
+    private static final long TIMEOUT_NANOS = 10_000_000_000L;
+
+    @Test
+    void batchesArriveInMoveOrderWithASnapshotOfTheGame() throws InterruptedException {
+        var game = new Game(new Board(8, 8, MinePlacement.exact(10), BoardBackend.PACKED, new SplittableRandom(42L)));
+
+        try (var session = new GameSession(game)) {
+            session.reveal(0);
+            session.flag(0);
+
+            var reveal = awaitBatch(session);
+            var flag = awaitBatch(session);
+
+            assertEquals(GameState.PLAYING, reveal.getState());
+            assertTrue(reveal.size() > 0);
+            assertEquals(0, reveal.getCell(0));
+            assertEquals(BoardStorage.REVEALED, Protocol.decodeStatus(reveal.getState(0)));
+            assertFalse(Protocol.decodeMine(reveal.getState(0)));
+            assertEquals(10, reveal.getMineCount());
+            assertEquals(10, reveal.getRemainingFlags());
+            // The revealed start cell cannot be flagged.
+            assertEquals(0, flag.size());
+            awaitIdle(session);
+            assertNull(session.poll());
+        }
+    }
+
+    @Test
+    void closingCancelsTheCascadeInFlight() throws Exception {
+        // An empty board: without cancellation the first reveal uncovers every cell.
+        var game = new Game(new Board(2_000, 2_000, MinePlacement.exact(0), BoardBackend.PACKED, new SplittableRandom(42L)));
+        var session = new GameSession(game);
+        var started = new CountDownLatch(1);
+
+        // The move holds off until close() interrupts its worker, so the cascade always runs interrupted.
+        var move = session.submit(index -> {
+            started.countDown();
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+
+            return game.reveal(index);
+        }, 0);
+
+        started.await();
+        session.close();
+
+        var exception = assertThrows(ExecutionException.class, () -> move.get(10, TimeUnit.SECONDS));
+        var storage = game.getBoard().getStorage();
+        int revealed = 0;
+
+        assertInstanceOf(CancellationException.class, exception.getCause());
+
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            if (storage.getStatus(index) == BoardStorage.REVEALED) {
+                revealed++;
+            }
+        }
+
+        assertTrue(revealed > 0);
+        assertTrue(revealed < storage.getCellCount());
+        assertTrue(session.isIdle());
+        assertNull(session.poll());
+    }
+
+    private static void awaitIdle(final GameSession session) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+
+        while (!session.isIdle() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertTrue(session.isIdle());
+    }
+
+    private static GameSession.Batch awaitBatch(final GameSession session) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        GameSession.Batch batch;
+
+        while ((batch = session.poll()) == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertNotNull(batch);
+
+        return batch;
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTest {
+    private static final int SIZE = 12;
+    private static final int MINES = 20;
+
+    private static Game createGame(final long seed) {
+        var board = new Board(SIZE, MinePlacement.exact(MINES), BoardBackend.PACKED, new SplittableRandom(seed));
+
+        return new Game(board);
+    }
+
+    @Test
+    void revealingEverySafeCellWinsTheGame() {
+        var game = createGame(1L);
+
+        game.reveal(SIZE / 2, SIZE / 2);
+
+        var storage = game.getBoard().getStorage();
+
+        for (int index = 0; index < storage.getCellCount() && game.getState() == GameState.PLAYING; index++) {
+            if (!storage.hasMine(index)) {
+                game.reveal(index);
+            }
+        }
+
+        assertEquals(GameState.WON, game.getState());
+        assertEquals(SIZE * SIZE - MINES, game.getRevealedCells());
+    }
+
+    @Test
+    void revealingAMineLosesAndExposesAllMines() {
+        var game = createGame(2L);
+
+        game.reveal(0, 0);
+
+        var storage = game.getBoard().getStorage();
+        int mine = 0;
+
+        while (!storage.hasMine(mine)) {
+            mine++;
+        }
+
+        var changes = game.reveal(mine);
+
+        assertEquals(GameState.LOST, game.getState());
+        assertEquals(mine, game.getExplodedIndex());
+        assertEquals(MINES, changes.size());
+    }
+
+    @Test
+    void flagsAreLimitedToTheMineCount() {
+        var game = createGame(3L);
+
+        assertTrue(game.flag(0).isEmpty());
+
+        game.reveal(0, 0);
+
+        var storage = game.getBoard().getStorage();
+        int flagged = 0;
+
+        for (int index = 0; index < storage.getCellCount(); index++) {
+            if (storage.getStatus(index) == BoardStorage.HIDDEN && !game.flag(index).isEmpty()) {
+                flagged++;
+            }
+        }
+
+        assertEquals(MINES, flagged);
+        assertEquals(0, game.getRemainingFlags());
+    }
+
+    @Test
+    void chordingRevealsUnflaggedNeighbours() {
+        var game = createGame(4L);
+
+        game.reveal(SIZE / 2, SIZE / 2);
+
+        var storage = game.getBoard().getStorage();
+        int numbered = 0;
+
+        // A revealed number that still has hidden safe cells around it.
+        while (
+            storage.getStatus(numbered) != BoardStorage.REVEALED ||
+            storage.getAdjacentMines(numbered) == 0 ||
+            countHiddenSafeNeighbours(storage, numbered) == 0
+        ) {
+            numbered++;
+        }
+
+        int hiddenSafeNeighbours = countHiddenSafeNeighbours(storage, numbered);
+
+        for (int neighbour : getNeighbours(numbered)) {
+            if (storage.hasMine(neighbour)) {
+                game.flag(neighbour);
+            }
+        }
+
+        var changes = game.chord(numbered);
+
+        assertTrue(hiddenSafeNeighbours > 0);
+        assertTrue(changes.size() >= hiddenSafeNeighbours);
+        assertTrue(game.getState() != GameState.LOST);
+
+        for (int neighbour : getNeighbours(numbered)) {
+            byte expected = storage.hasMine(neighbour) ? BoardStorage.MARKED : BoardStorage.REVEALED;
+
+            assertEquals(expected, storage.getStatus(neighbour));
+        }
+    }
+
+    private static int countHiddenSafeNeighbours(final BoardStorage storage, final int index) {
+        int count = 0;
+
+        for (int neighbour : getNeighbours(index)) {
+            if (!storage.hasMine(neighbour) && storage.getStatus(neighbour) == BoardStorage.HIDDEN) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static int[] getNeighbours(final int index) {
+        int row = index / SIZE;
+        int column = index % SIZE;
+        int[] neighbours = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+        int count = 0;
+
+        for (int neighbourRow = Math.max(row - 1, 0); neighbourRow <= Math.min(row + 1, SIZE - 1); neighbourRow++) {
+            for (int neighbourColumn = Math.max(column - 1, 0); neighbourColumn <= Math.min(column + 1, SIZE - 1); neighbourColumn++) {
+                if (neighbourRow != row || neighbourColumn != column) {
+                    neighbours[count++] = neighbourRow * SIZE + neighbourColumn;
+                }
+            }
+        }
+
+        return Arrays.copyOf(neighbours, count);
+    }
+}
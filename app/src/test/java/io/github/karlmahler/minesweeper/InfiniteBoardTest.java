@@ -0,0 +1,129 @@
+package io.github.karlmahler.minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InfiniteBoardTest {
+    private static final long SEED = 99L;
+    private static final double MINE_PROBABILITY = 16.0;
+
+    @Test
+    void regionsAreDeterministicAndCountsCrossChunkBorders() throws IOException {
+        var directory = Files.createTempDirectory("minesweeper");
+
+        try (var first = new InfiniteBoard(SEED, MINE_PROBABILITY, 0, 0, 1L << 20, directory);
+             var second = new InfiniteBoard(SEED, MINE_PROBABILITY, 0, 0, 1L << 20, directory)) {
+            for (int row = -70; row < 70; row++) {
+                for (int column = -70; column < 70; column++) {
+                    int expected = 0;
+
+                    for (int neighbourRow = row - 1; neighbourRow <= row + 1; neighbourRow++) {
+                        for (int neighbourColumn = column - 1; neighbourColumn <= column + 1; neighbourColumn++) {
+                            if ((neighbourRow != row || neighbourColumn != column) && first.hasMine(neighbourRow, neighbourColumn)) {
+                                expected++;
+                            }
+                        }
+                    }
+
+                    assertEquals(first.hasMine(row, column), second.hasMine(row, column));
+                    assertEquals(expected, first.getAdjacentMines(row, column));
+                }
+            }
+
+            assertFalse(first.hasMine(0, 0));
+            assertEquals(0, first.getAdjacentMines(0, 0));
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void evictedChunksKeepTheirStatus() throws IOException {
+        var directory = Files.createTempDirectory("minesweeper");
+        Set<Long> revealed = new HashSet<>();
+
+        try (var board = new InfiniteBoard(SEED, MINE_PROBABILITY, 0, 0, 0L, directory)) {
+            assertFalse(board.reveal(0, 0, revealed::add));
+
+            int step = InfiniteBoard.CHUNK_SIZE;
+
+            assertTrue(board.mark(step * 3, step * 3));
+            assertTrue(board.mark(-step * 3, step * 5));
+            assertEquals(1, board.getResidentChunks());
+
+            for (long cell : revealed) {
+                int row = InfiniteBoard.unpackRow(cell);
+                int column = InfiniteBoard.unpackColumn(cell);
+
+                assertEquals(BoardStorage.REVEALED, board.getStatus(row, column));
+                assertFalse(board.hasMine(row, column));
+            }
+
+            assertEquals(BoardStorage.MARKED, board.getStatus(step * 3, step * 3));
+            assertEquals(BoardStorage.MARKED, board.getStatus(-step * 3, step * 5));
+            assertEquals(BoardStorage.HIDDEN, board.getStatus(step * 7, step * 7));
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void boardsSharingASpillDirectoryKeepTheirOwnChunks() throws IOException {
+        var directory = Files.createTempDirectory("minesweeper");
+        int step = InfiniteBoard.CHUNK_SIZE;
+
+        try (var first = new InfiniteBoard(SEED, MINE_PROBABILITY, 0, 0, 0L, directory);
+             var second = new InfiniteBoard(SEED, MINE_PROBABILITY, 0, 0, 0L, directory)) {
+            // Both boards spill the chunk at the origin when they move on to another one.
+            assertTrue(first.mark(1, 1));
+            assertTrue(first.mark(step * 3, step * 3));
+            assertTrue(second.mark(2, 2));
+            assertTrue(second.mark(step * 3, step * 3));
+
+            assertEquals(BoardStorage.MARKED, first.getStatus(1, 1));
+            assertEquals(BoardStorage.HIDDEN, first.getStatus(2, 2));
+            assertEquals(BoardStorage.MARKED, second.getStatus(2, 2));
+            assertEquals(BoardStorage.HIDDEN, second.getStatus(1, 1));
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void revealReportsMinesOnlyForMines() throws IOException {
+        var directory = Files.createTempDirectory("minesweeper");
+
+        try (var board = new InfiniteBoard(SEED, MINE_PROBABILITY, 0, 0, 1L << 20, directory)) {
+            int numberedRow = 0;
+            int numberedColumn = 10;
+            int mineRow = 0;
+            int mineColumn = 10;
+
+            while (board.hasMine(numberedRow, numberedColumn) || board.getAdjacentMines(numberedRow, numberedColumn) == 0) {
+                numberedColumn++;
+            }
+
+            while (!board.hasMine(mineRow, mineColumn)) {
+                mineColumn++;
+            }
+
+            Set<Long> revealed = new HashSet<>();
+
+            assertFalse(board.reveal(numberedRow, numberedColumn, revealed::add));
+            assertEquals(Set.of(InfiniteBoard.packCell(numberedRow, numberedColumn)), revealed);
+            assertEquals(BoardStorage.REVEALED, board.getStatus(numberedRow, numberedColumn));
+
+            revealed.clear();
+
+            assertTrue(board.reveal(mineRow, mineColumn, revealed::add));
+            assertEquals(Set.of(InfiniteBoard.packCell(mineRow, mineColumn)), revealed);
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.karlmahler.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void percentilesFallInTheRecordedBuckets() {
+        var histogram = new LatencyHistogram("test");
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000L);
+        }
+
+        histogram.record(1_000_000L);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000_000L, histogram.getMaximumNanos());
+        assertEquals(1_023L, histogram.getPercentileNanos(50.0));
+        assertEquals(1_023L, histogram.getPercentileNanos(99.0));
+        assertEquals(1_000_000L, histogram.getPercentileNanos(100.0));
+        assertEquals(10_990.0, histogram.getMeanNanos(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101.0));
+    }
+}
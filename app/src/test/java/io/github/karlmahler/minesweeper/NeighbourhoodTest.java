@@ -0,0 +1,47 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NeighbourhoodTest {
+    @Test
+    void matchesBoundsCheckedNeighboursOnEveryShape() {
+        int[][] shapes = { { 1, 1 }, { 1, 7 }, { 7, 1 }, { 2, 2 }, { 5, 9 }, { 64, 63 } };
+
+        for (int[] shape : shapes) {
+            int rows = shape[0];
+            int columns = shape[1];
+            var neighbourhood = new Neighbourhood(rows, columns);
+            var cells = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+
+            for (int index = 0; index < rows * columns; index++) {
+                int count = neighbourhood.collect(index, cells);
+                int[] actual = Arrays.copyOf(cells, count);
+
+                Arrays.sort(actual);
+                assertArrayEquals(expectedNeighbours(rows, columns, index), actual);
+            }
+        }
+    }
+
+    private static int[] expectedNeighbours(final int rows, final int columns, final int index) {
+        int row = index / columns;
+        int column = index % columns;
+        int[] neighbours = new int[Neighbourhood.MAXIMUM_NEIGHBOURS];
+        int count = 0;
+
+        for (int neighbourRow = row - 1; neighbourRow <= row + 1; neighbourRow++) {
+            for (int neighbourColumn = column - 1; neighbourColumn <= column + 1; neighbourColumn++) {
+                boolean inside = neighbourRow >= 0 && neighbourRow < rows && neighbourColumn >= 0 && neighbourColumn < columns;
+
+                if (inside && (neighbourRow != row || neighbourColumn != column)) {
+                    neighbours[count++] = neighbourRow * columns + neighbourColumn;
+                }
+            }
+        }
+
+        return Arrays.copyOf(neighbours, count);
+    }
+}
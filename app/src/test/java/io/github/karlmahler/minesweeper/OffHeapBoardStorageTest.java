@@ -0,0 +1,81 @@
+package io.github.karlmahler.minesweeper;
+
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapBoardStorageTest {
+    private static final int ROWS = 40;
+    private static final int COLUMNS = 70;
+    private static final int MOVES = 400;
+    private static final long SEED = 42L;
+
+    @Test
+    void offHeapBoardsPlayLikeHeapBoards() {
+        for (var backend : new BoardBackend[] {BoardBackend.OFF_HEAP, BoardBackend.MAPPED}) {
+            for (long seed = SEED; seed < SEED + 5; seed++) {
+                assertSameGame(backend, seed);
+            }
+        }
+    }
+
+    // Replays the same random reveals, flags and chords on a packed board and
+    // an off-heap one and compares every cell after each move.
+    private static void assertSameGame(final BoardBackend backend, final long seed) {
+        var placement = MinePlacement.probability(Difficulty.MEDIUM.getMineProbability());
+        var expected = new Game(new Board(ROWS, COLUMNS, placement, BoardBackend.PACKED, new SplittableRandom(seed)));
+        var actual = new Game(new Board(ROWS, COLUMNS, placement, backend, new SplittableRandom(seed)));
+        var moves = new SplittableRandom(seed);
+
+        for (int move = 0; move < MOVES && expected.getState() == GameState.PLAYING; move++) {
+            int index = moves.nextInt(ROWS * COLUMNS);
+
+            switch (move == 0 ? 0 : moves.nextInt(3)) {
+                case 0 -> assertEquals(expected.reveal(index).size(), actual.reveal(index).size());
+                case 1 -> assertEquals(expected.flag(index).size(), actual.flag(index).size());
+                default -> assertEquals(expected.chord(index).size(), actual.chord(index).size());
+            }
+
+            assertEquals(expected.getState(), actual.getState());
+            assertEquals(expected.getRemainingFlags(), actual.getRemainingFlags());
+            assertEquals(expected.getRevealedCells(), actual.getRevealedCells());
+            assertSameCells(expected.getBoard().getStorage(), actual.getBoard().getStorage());
+        }
+    }
+
+    private static void assertSameCells(final BoardStorage expected, final BoardStorage actual) {
+        for (int index = 0; index < expected.getCellCount(); index++) {
+            assertEquals(expected.hasMine(index), actual.hasMine(index));
+            assertEquals(expected.getAdjacentMines(index), actual.getAdjacentMines(index));
+            assertEquals(expected.getStatus(index), actual.getStatus(index));
+        }
+    }
+
+    @Test
+    void mappedStorageLeavesNoFileBehind() throws Exception {
+        var directory = Files.createTempDirectory("minesweeper-mapped");
+        var storage = OffHeapBoardStorage.mapped(3, 5, directory);
+
+        storage.setMine(14, true);
+        storage.setAdjacentMines(13, 1);
+        storage.setStatus(0, BoardStorage.MARKED);
+
+        assertTrue(storage.hasMine(14));
+        assertEquals(1, storage.getAdjacentMines(13));
+        assertEquals(BoardStorage.MARKED, storage.getStatus(0));
+        assertEquals(BoardStorage.HIDDEN, storage.getStatus(14));
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+
+        Files.delete(directory);
+    }
+
+    @Test
+    void selectorFallsBackToAMappedFileWhenTheHeapIsTooSmall() {
+        assertEquals(BoardBackend.MAPPED, BoardBackend.select(10_000, 10_000, 0, 100L << 20));
+    }
+}
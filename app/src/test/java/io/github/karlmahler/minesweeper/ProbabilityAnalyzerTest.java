@@ -0,0 +1,123 @@
+package io.github.karlmahler.minesweeper;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbabilityAnalyzerTest {
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void singleNumberSpreadsItsMineEvenly() {
+        var storage = new PackedBoardStorage(3, 3);
+
+        storage.setAdjacentMines(4, 1);
+        storage.setStatus(4, BoardStorage.REVEALED);
+
+        double[] probabilities = new ProbabilityAnalyzer(storage).analyze(1);
+
+        assertEquals(0.0, probabilities[4], TOLERANCE);
+        assertEquals(1.0 / 8.0, probabilities[0], TOLERANCE);
+        assertEquals(1.0 / 8.0, probabilities[8], TOLERANCE);
+    }
+
+    @Test
+    void matchesBruteForceEnumeration() {
+        var random = new SplittableRandom(5L);
+
+        for (int round = 0; round < 200; round++) {
+            int rows = 4;
+            int columns = 5;
+            var storage = new PackedBoardStorage(rows, columns);
+
+            for (int index = 0; index < storage.getCellCount(); index++) {
+                storage.setMine(index, random.nextInt(4) == 0);
+            }
+
+            AdjacencyCounter.count(storage);
+
+            int mineCount = 0;
+
+            for (int index = 0; index < storage.getCellCount(); index++) {
+                if (storage.hasMine(index)) {
+                    mineCount++;
+                } else if (random.nextInt(2) == 0) {
+                    storage.setStatus(index, BoardStorage.REVEALED);
+                }
+            }
+
+            double[] expected = bruteForce(storage, mineCount);
+            double[] actual = new ProbabilityAnalyzer(storage).analyze(mineCount);
+
+            assertArrayEquals(expected, actual, TOLERANCE);
+        }
+    }
+
+    @Test
+    void rejectsImpossibleStates() {
+        var storage = new PackedBoardStorage(1, 2);
+
+        storage.setAdjacentMines(0, 1);
+        storage.setStatus(0, BoardStorage.REVEALED);
+
+        assertThrows(IllegalStateException.class, () -> new ProbabilityAnalyzer(storage).analyze(0));
+    }
+
+    private static double[] bruteForce(final BoardStorage storage, final int mineCount) {
+        int cells = storage.getCellCount();
+        int[] hidden = new int[cells];
+        int hiddenCount = 0;
+
+        for (int index = 0; index < cells; index++) {
+            if (storage.getStatus(index) == BoardStorage.HIDDEN) {
+                hidden[hiddenCount++] = index;
+            }
+        }
+
+        var mineTotals = new double[cells];
+        double layouts = 0.0;
+        var candidate = new PackedBoardStorage(storage.getRows(), storage.getColumns());
+
+        for (int mask = 0; mask < 1 << hiddenCount; mask++) {
+            if (Integer.bitCount(mask) != mineCount) {
+                continue;
+            }
+
+            for (int index = 0; index < cells; index++) {
+                candidate.setMine(index, false);
+            }
+
+            for (int i = 0; i < hiddenCount; i++) {
+                candidate.setMine(hidden[i], (mask >>> i & 1) == 1);
+            }
+
+            AdjacencyCounter.countScalar(candidate);
+
+            boolean consistent = true;
+
+            for (int index = 0; index < cells && consistent; index++) {
+                consistent = storage.getStatus(index) != BoardStorage.REVEALED ||
+                    candidate.getAdjacentMines(index) == storage.getAdjacentMines(index);
+            }
+
+            if (!consistent) {
+                continue;
+            }
+
+            layouts++;
+
+            for (int i = 0; i < hiddenCount; i++) {
+                if ((mask >>> i & 1) == 1) {
+                    mineTotals[hidden[i]]++;
+                }
+            }
+        }
+
+        for (int index = 0; index < cells; index++) {
+            mineTotals[index] /= layouts;
+        }
+
+        return mineTotals;
+    }
+}
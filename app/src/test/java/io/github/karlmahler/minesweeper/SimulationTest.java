@@ -0,0 +1,26 @@
+package io.github.karlmahler.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+    private static final int GAMES = 3_000;
+    private static final long SEED = 11L;
+
+    @Test
+    void resultsDependOnTheSeedOnly() {
+        var singleThreaded = new Simulation(GAMES, SEED, 1).run(Difficulty.MEDIUM);
+        var multiThreaded = new Simulation(GAMES, SEED, 4).run(Difficulty.MEDIUM);
+
+        assertEquals(GAMES, singleThreaded.getGames());
+        assertEquals(singleThreaded.getWins(), multiThreaded.getWins());
+        assertEquals(singleThreaded.getAverageReveals(), multiThreaded.getAverageReveals(), 0.0);
+    }
+
+    @Test
+    void solverWinsMostEasyGames() {
+        var statistics = new Simulation(GAMES, SEED, 1).run(Difficulty.EASY);
+
+        assertTrue(statistics.getWinRate() > 0.8);
+    }
+}